@@ -1,17 +1,32 @@
 package com.example.coursesearch;
 
 import com.example.coursesearch.service.CourseIndexService;
+import com.example.coursesearch.service.CourseWriteService;
+import com.example.coursesearch.service.SearchService;
+import com.example.coursesearch.service.WarmSet;
+import com.example.coursesearch.service.WarmUpService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CourseSearchApplication implements CommandLineRunner {
 
     private final CourseIndexService courseIndexService;
+    private final CourseWriteService courseWriteService;
+    private final SearchService searchService;
+    private final WarmSet warmSet;
+    private final WarmUpService warmUpService;
 
-    public CourseSearchApplication(CourseIndexService courseIndexService) {
+    public CourseSearchApplication(CourseIndexService courseIndexService, CourseWriteService courseWriteService,
+                                   SearchService searchService, WarmSet warmSet, WarmUpService warmUpService) {
         this.courseIndexService = courseIndexService;
+        this.courseWriteService = courseWriteService;
+        this.searchService = searchService;
+        this.warmSet = warmSet;
+        this.warmUpService = warmUpService;
     }
 
     public static void main(String[] args) {
@@ -21,5 +36,9 @@ public class CourseSearchApplication implements CommandLineRunner {
     @Override
     public void run(String... args) {
         courseIndexService.indexSampleCourses();
+        courseWriteService.start();
+        warmSet.start(searchService::load);
+        // Readiness only turns to ACCEPTING_TRAFFIC once every runner has returned
+        warmUpService.warmUp();
     }
 }
@@ -0,0 +1,40 @@
+package com.example.coursesearch.config;
+
+import co.elastic.clients.json.JsonpMapper;
+import com.example.coursesearch.service.CourseHitReader;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.rest_client.RestClientOptions;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.elasticsearch.client.RestClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+
+import java.util.List;
+
+@Configuration
+public class ElasticsearchConfig {
+
+    /**
+     * Replaces Spring Boot's conversions to read search hits from their source straight into
+     * {@code CourseHit} records.
+     */
+    @Bean
+    public ElasticsearchCustomConversions elasticsearchCustomConversions() {
+        return new ElasticsearchCustomConversions(List.of(new CourseHitReader()));
+    }
+
+    /**
+     * Spring Boot's transport, made interruptible so cancelled hedged attempts stop on the
+     * cluster as well; replaces the auto-configured one only while hedging is enabled.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "search.hedging.enabled", havingValue = "true")
+    public ElasticsearchTransport elasticsearchTransport(RestClient restClient, JsonpMapper jsonpMapper,
+                                                         ObjectProvider<RestClientOptions> restClientOptions) {
+        return new InterruptibleElasticsearchTransport(
+                new RestClientTransport(restClient, jsonpMapper, restClientOptions.getIfAvailable()));
+    }
+}
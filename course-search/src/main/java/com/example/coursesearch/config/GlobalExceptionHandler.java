@@ -1,5 +1,6 @@
 package com.example.coursesearch.config;
 
+import com.example.coursesearch.service.WriteQueueFullException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +25,18 @@ public class GlobalExceptionHandler {
             ));
     }
 
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<?> handleWriteQueueFull(Exception ex) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(Map.of(
+                "timestamp", ZonedDateTime.now(),
+                "status", 503,
+                "error", "Service Unavailable",
+                "message", ex.getMessage()
+            ));
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<?> handleValidationException(Exception ex) {
         return ResponseEntity
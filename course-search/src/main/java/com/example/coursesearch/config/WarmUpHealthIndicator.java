@@ -0,0 +1,34 @@
+package com.example.coursesearch.config;
+
+import com.example.coursesearch.service.WarmUpService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service until the startup warm-up has finished; part of the readiness group so
+ * no traffic is routed to a cold instance. Reports the warm-up time and p99 afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUpService warmUpService;
+
+    @Override
+    public Health health() {
+        WarmUpService.WarmUpReport report = warmUpService.report();
+        if (report == null) {
+            return Health.outOfService().withDetail("warmUp", "running").build();
+        }
+        return Health.up()
+                .withDetail("requests", report.requests())
+                .withDetail("failures", report.failures())
+                .withDetail("rounds", report.rounds())
+                .withDetail("durationMs", report.durationMs())
+                .withDetail("p99Ms", report.p99Ms())
+                .withDetail("targetReached", report.targetReached())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.coursesearch.config;
+
+import com.example.coursesearch.controller.ConditionalRequestInterceptor;
+import com.example.coursesearch.controller.WarmSetInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConditionalRequestInterceptor conditionalRequestInterceptor;
+    private final WarmSetInterceptor warmSetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalRequestInterceptor).addPathPatterns("/api/search", "/api/search/suggest");
+        registry.addInterceptor(warmSetInterceptor).addPathPatterns("/api/search");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ZstdCompressionFilter> zstdCompressionFilter(
+            @Value("${search.http.zstd-level:3}") int level,
+            @Value("${server.compression.min-response-size:2048}") int minBytes
+    ) {
+        FilterRegistrationBean<ZstdCompressionFilter> registration =
+                new FilterRegistrationBean<>(new ZstdCompressionFilter(level, minBytes));
+        registration.addUrlPatterns("/api/search", "/api/search/*");
+        return registration;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.coursesearch.config;
+
+import com.github.luben.zstd.Zstd;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Zstandard response compression for clients sending {@code Accept-Encoding: zstd}, unless
+ * they rank gzip higher. The servlet container only offers gzip ({@code server.compression});
+ * it leaves responses that already carry a {@code Content-Encoding} alone, so the two do not
+ * stack.
+ */
+public class ZstdCompressionFilter extends OncePerRequestFilter {
+
+    private static final String ZSTD = "zstd";
+    private static final String GZIP = "gzip";
+
+    private final int level;
+    private final int minBytes;
+
+    public ZstdCompressionFilter(int level, int minBytes) {
+        if (level < Zstd.minCompressionLevel() || level > Zstd.maxCompressionLevel() || minBytes < 0) {
+            throw new IllegalArgumentException("Invalid search.http.zstd settings");
+        }
+        this.level = level;
+        this.minBytes = minBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, buffered);
+
+        byte[] body = buffered.getContentAsByteArray();
+        if (buffered.getStatus() != HttpServletResponse.SC_OK || body.length < minBytes
+                || buffered.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            buffered.copyBodyToResponse();
+            return;
+        }
+        byte[] compressed = Zstd.compress(body, level);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, ZSTD);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    /**
+     * @return whether the {@code Accept-Encoding} header lists zstd with a non-zero quality at
+     * least as high as gzip's, which the container would otherwise use; a {@code *} entry sets
+     * the quality of gzip when gzip is not listed itself
+     */
+    static boolean accepts(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double zstd = 0;
+        double gzip = -1;
+        double any = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(ZSTD)) {
+                zstd = quality(parts);
+            } else if (name.equalsIgnoreCase(GZIP)) {
+                gzip = quality(parts);
+            } else if (name.equals("*")) {
+                any = quality(parts);
+            }
+        }
+        return zstd > 0 && zstd >= (gzip < 0 ? any : gzip);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.service.IndexGeneration;
+import com.example.coursesearch.service.QueryCanonicalizer;
+import com.example.coursesearch.service.SearchQuery;
+import com.example.coursesearch.service.SearchQueryParams;
+import com.example.coursesearch.service.SearchService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Conditional GETs for {@code /api/search} and {@code /api/search/suggest}. The entity tag
+ * is the index generation plus the canonical query key, so it is known before any backend
+ * call: a matching {@code If-None-Match} is answered with 304 right here.
+ * <p>
+ * The generation is an in-memory counter that starts over on every restart and differs
+ * between instances, so tags also carry a per-process epoch. A tag from another process
+ * never matches and the client simply gets a full response.
+ */
+@Component
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    private static final String SUGGEST_PATH = "/api/search/suggest";
+
+    private final SearchService searchService;
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final IndexGeneration indexGeneration;
+    private final String cacheControl;
+    private final String epoch = epoch();
+
+    public ConditionalRequestInterceptor(
+            SearchService searchService,
+            QueryCanonicalizer queryCanonicalizer,
+            IndexGeneration indexGeneration,
+            @Value("${search.http.max-age-seconds:30}") long maxAgeSeconds
+    ) {
+        if (maxAgeSeconds < 0) {
+            throw new IllegalArgumentException("search.http.max-age-seconds must not be negative");
+        }
+        this.searchService = searchService;
+        this.queryCanonicalizer = queryCanonicalizer;
+        this.indexGeneration = indexGeneration;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .mustRevalidate()
+                .getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String key = key(request);
+        if (key == null) {
+            return true;
+        }
+        ResponseValidators validators = new ResponseValidators(
+                "W/\"" + epoch + "-" + indexGeneration.current() + "-" + key + "\"", cacheControl);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), validators.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            validators.applyTo(response);
+            return false;
+        }
+        validators.attachTo(request);
+        return true;
+    }
+
+    /**
+     * @return the canonical key of the request, or {@code null} if it will not produce a
+     * cacheable response
+     */
+    private String key(HttpServletRequest request) {
+        if (request.getRequestURI().endsWith(SUGGEST_PATH)) {
+            // Parsed like a search for its q and tenant parameters, which it shares
+            SearchQuery query = request.getParameter("q") == null ? null : SearchQueryParams.parse(request.getParameterMap());
+            return query == null ? null : queryCanonicalizer.suggestKey(query.tenantId(), query.keyword());
+        }
+        SearchQuery query = SearchQueryParams.parse(request.getParameterMap());
+        if (query == null) {
+            return null;
+        }
+        try {
+            return searchService.canonicalize(query).key();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Startup instant plus random bits: unique across restarts and across instances that
+     * start in the same millisecond.
+     */
+    private static String epoch() {
+        long random = new SecureRandom().nextLong() >>> 16;
+        return Long.toString(System.currentTimeMillis(), 36) + Long.toString(random, 36);
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}: {@code W/} prefixes are ignored.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.document.CourseDocument;
+import com.example.coursesearch.service.CourseWrite;
+import com.example.coursesearch.service.CourseWriteService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/courses")
+@Validated
+@RequiredArgsConstructor
+public class CourseController {
+
+    private final CourseWriteService courseWriteService;
+
+    @PutMapping("/{id}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void upsertCourse(@PathVariable String id, @RequestBody CourseDocument course) {
+        courseWriteService.upsert(id, course);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void deleteCourse(@PathVariable String id) {
+        courseWriteService.delete(id);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void bulkWrite(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid CourseWrite> writes) {
+        courseWriteService.accept(writes);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.service.CourseEvent;
+import com.example.coursesearch.service.PopularityService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/events")
+@Validated
+@RequiredArgsConstructor
+public class EventController {
+
+    private final PopularityService popularityService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void recordEvents(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid CourseEvent> events) {
+        popularityService.record(events);
+    }
+}
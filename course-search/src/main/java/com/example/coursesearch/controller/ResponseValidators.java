@@ -0,0 +1,41 @@
+package com.example.coursesearch.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Cache headers computed for a request before its handler runs, applied only to successful
+ * responses so error bodies are never tagged or cached.
+ */
+record ResponseValidators(String etag, String cacheControl) {
+
+    private static final String ATTRIBUTE = ResponseValidators.class.getName();
+
+    void attachTo(HttpServletRequest request) {
+        request.setAttribute(ATTRIBUTE, this);
+    }
+
+    void applyTo(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * The tag is weak and shared by every encoding of a result, so caches must key on
+     * {@code Accept} as well.
+     */
+    void applyTo(HttpHeaders headers) {
+        headers.setETag(etag);
+        headers.setCacheControl(cacheControl);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * @return the validators attached to the request, or {@code null}
+     */
+    static ResponseValidators of(HttpServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof ResponseValidators validators ? validators : null;
+    }
+}
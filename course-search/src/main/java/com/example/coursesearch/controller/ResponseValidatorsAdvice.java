@@ -0,0 +1,38 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.service.SearchResult;
+import com.example.coursesearch.service.SuggestResult;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@link ConditionalRequestInterceptor} headers to search and suggest bodies.
+ */
+@RestControllerAdvice
+public class ResponseValidatorsAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if ((body instanceof SearchResult || body instanceof SuggestResult)
+                && request instanceof ServletServerHttpRequest servletRequest) {
+            ResponseValidators validators = ResponseValidators.of(servletRequest.getServletRequest());
+            if (validators != null) {
+                validators.applyTo(response.getHeaders());
+            }
+        }
+        return body;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.coursesearch.controller;
 
+import com.example.coursesearch.service.InstantResult;
+import com.example.coursesearch.service.InstantSearchService;
+import com.example.coursesearch.service.SearchQuery;
 import com.example.coursesearch.service.SearchService;
 import com.example.coursesearch.service.SuggestResult;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.ZonedDateTime;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
 import com.example.coursesearch.service.SearchResult;
 
 @RestController
@@ -19,10 +23,22 @@ import com.example.coursesearch.service.SearchResult;
 public class SearchController {
 
     private final SearchService searchService;
+    private final InstantSearchService instantSearchService;
 
     @GetMapping("/suggest")
-    public SuggestResult suggestCourses(@RequestParam String q) {
-        return searchService.suggest(q);
+    public SuggestResult suggestCourses(
+        @RequestParam String q,
+        @RequestParam(required = false) @Pattern(regexp = SearchQuery.TENANT_ID) String tenant
+    ) {
+        return searchService.suggest(tenant, q);
+    }
+
+    @GetMapping("/instant")
+    public InstantResult instantSearch(
+        @RequestParam String q,
+        @RequestParam(required = false) @Pattern(regexp = SearchQuery.TENANT_ID) String tenant
+    ) {
+        return instantSearchService.instant(tenant, q);
     }
 
     @GetMapping
@@ -35,15 +51,31 @@ public class SearchController {
         @RequestParam(required = false) Double minPrice,
         @RequestParam(required = false) Double maxPrice,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
-        @RequestParam(defaultValue = "nextSessionDate") String sort,
-        @RequestParam(defaultValue = "0") @Min(0) int page,
-        @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size
+        @RequestParam(required = false) Double lat,
+        @RequestParam(required = false) Double lon,
+        @RequestParam(required = false) Double radius,
+        @RequestParam(required = false) @Pattern(regexp = SearchQuery.TENANT_ID) String tenant,
+        @RequestParam(defaultValue = SearchQuery.DEFAULT_SORT) @Pattern(regexp = SearchQuery.SORTS) String sort,
+        @RequestParam(defaultValue = SearchQuery.DEFAULT_PAGE) @Min(0) int page,
+        @RequestParam(defaultValue = SearchQuery.DEFAULT_SIZE) @Min(1) @Max(SearchQuery.MAX_SIZE) int size
     ) {
-        SearchResult result = searchService.search(
-                q, minAge, maxAge, category, type,
-                minPrice, maxPrice, startDate,
-                sort, page, size
-        );
+        SearchResult result = searchService.search(SearchQuery.builder()
+                .tenantId(tenant)
+                .keyword(q)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .category(category)
+                .type(type)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .startDate(startDate)
+                .lat(lat)
+                .lon(lon)
+                .radiusKm(radius)
+                .sort(sort)
+                .page(page)
+                .size(size)
+                .build());
 
         if (result == null) {
             return new SearchResult(0, java.util.Collections.emptyList());
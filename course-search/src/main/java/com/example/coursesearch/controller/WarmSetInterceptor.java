@@ -0,0 +1,93 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.service.CanonicalQuery;
+import com.example.coursesearch.service.SearchQuery;
+import com.example.coursesearch.service.SearchQueryParams;
+import com.example.coursesearch.service.SearchService;
+import com.example.coursesearch.service.WarmPage;
+import com.example.coursesearch.service.WarmSet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Answers {@code GET /api/search} for warm pages with their pre-serialized JSON, before the
+ * controller runs. Anything that is not a warm page, or not asking for JSON, continues to
+ * the controller.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmSetInterceptor implements HandlerInterceptor {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final SearchService searchService;
+    private final WarmSet warmSet;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!warmSet.isEnabled() || !"GET".equals(request.getMethod()) || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return true;
+        }
+        SearchQuery query = SearchQueryParams.parse(request.getParameterMap());
+        if (query == null) {
+            return true;
+        }
+        CanonicalQuery canonical;
+        try {
+            canonical = searchService.canonicalize(query);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+        WarmPage page = warmSet.find(canonical.key());
+        if (page == null) {
+            return true;
+        }
+        warmSet.record(canonical);
+        ResponseValidators validators = ResponseValidators.of(request);
+        if (validators != null) {
+            validators.applyTo(response);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(page.json().length);
+        response.getOutputStream().write(page.json());
+        return false;
+    }
+
+    /**
+     * Warm pages are stored as JSON only; callers asking for CBOR or Smile, or for nothing
+     * JSON can satisfy, go through normal content negotiation.
+     */
+    static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        boolean json = false;
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isConcrete() && (type.isCompatibleWith(CBOR) || type.isCompatibleWith(SMILE))) {
+                return false;
+            }
+            json |= type.includes(MediaType.APPLICATION_JSON);
+        }
+        return json;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.coursesearch.document;
+
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchDateConverter;
+import org.springframework.data.elasticsearch.core.mapping.PropertyValueConverter;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * {@code basic_date_time} conversion for {@link ZonedDateTime} properties. Dates are written
+ * exactly as Spring Data writes them; reading parses the UTC form this application writes,
+ * {@code yyyyMMdd'T'HHmmss.SSS'Z'}, digit by digit instead of through a
+ * {@code DateTimeFormatter}, which allocates more than a kilobyte per date and runs for every
+ * hit of every search. Any other form falls back to the formatter.
+ */
+public class BasicDateTimeConverter implements PropertyValueConverter {
+
+    private static final ElasticsearchDateConverter FORMATTER = ElasticsearchDateConverter.of(DateFormat.basic_date_time);
+
+    @Override
+    public Object write(Object value) {
+        return value instanceof TemporalAccessor temporal ? FORMATTER.format(temporal) : value;
+    }
+
+    @Override
+    public Object read(Object value) {
+        if (!(value instanceof String text)) {
+            return value;
+        }
+        ZonedDateTime utc = parseUtc(text);
+        return utc != null ? utc : FORMATTER.parse(text, ZonedDateTime.class);
+    }
+
+    /**
+     * @return the date, or {@code null} if {@code text} is not {@code yyyyMMdd'T'HHmmss.SSS'Z'}
+     */
+    static ZonedDateTime parseUtc(String text) {
+        if (text.length() != 20 || text.charAt(8) != 'T' || text.charAt(15) != '.' || text.charAt(19) != 'Z') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 4, 6);
+        int day = digits(text, 6, 8);
+        int hour = digits(text, 9, 11);
+        int minute = digits(text, 11, 13);
+        int second = digits(text, 13, 15);
+        int millis = digits(text, 16, 19);
+        if ((year | month | day | hour | minute | second | millis) < 0
+                || month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000, ZoneOffset.UTC);
+        } catch (RuntimeException e) {
+            // e.g. February 30th; let the formatter report it
+            return null;
+        }
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
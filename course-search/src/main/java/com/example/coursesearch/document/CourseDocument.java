@@ -7,16 +7,24 @@ import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.CompletionField;
+import org.springframework.data.elasticsearch.annotations.GeoPointField;
+import org.springframework.data.elasticsearch.annotations.Routing;
+import org.springframework.data.elasticsearch.annotations.ValueConverter;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 
 import java.time.ZonedDateTime;
 
 @Data
 @Document(indexName = "courses")
+@Routing("tenantId")
 public class CourseDocument {
 
     @Id
     private String id;
 
+    @Field(type = FieldType.Keyword)
+    private String tenantId;
+
     @Field(type = FieldType.Text)
     private String title;
 
@@ -42,8 +50,15 @@ public class CourseDocument {
     private Double price;
 
     @Field(type = FieldType.Date, format = DateFormat.basic_date_time)
+    @ValueConverter(BasicDateTimeConverter.class)
     private ZonedDateTime nextSessionDate;
 
+    @GeoPointField
+    private GeoPoint location;
+
+    @Field(type = FieldType.Double)
+    private Double popularity;
+
     @CompletionField
     private String titleSuggest;
 }
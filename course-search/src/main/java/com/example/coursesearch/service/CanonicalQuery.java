@@ -0,0 +1,7 @@
+package com.example.coursesearch.service;
+
+/**
+ * A normalized {@link SearchQuery} together with its stable cache key.
+ */
+public record CanonicalQuery(SearchQuery query, String key) {
+}
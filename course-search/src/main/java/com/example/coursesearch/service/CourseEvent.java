@@ -0,0 +1,22 @@
+package com.example.coursesearch.service;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * A search-result interaction. {@code tenantId} is needed to reach courses that are routed
+ * by tenant and may be omitted for courses without one.
+ */
+public record CourseEvent(@NotBlank String courseId, @NotNull Type type,
+                          @Pattern(regexp = SearchQuery.TENANT_ID) String tenantId) {
+
+    public CourseEvent(String courseId, Type type) {
+        this(courseId, type, null);
+    }
+
+    public enum Type {
+        IMPRESSION,
+        CLICK
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Response view of a {@link CourseDocument}. {@code nextSessionDate} is formatted once when
+ * the hit is built, so serializing a page is plain string copying.
+ */
+public record CourseHit(
+        String id,
+        String tenantId,
+        String title,
+        String description,
+        String category,
+        String type,
+        String gradeRange,
+        Integer minAge,
+        Integer maxAge,
+        Double price,
+        String nextSessionDate,
+        GeoPoint location,
+        Double popularity
+) {
+
+    public static CourseHit from(CourseDocument course) {
+        return new CourseHit(
+                course.getId(),
+                course.getTenantId(),
+                course.getTitle(),
+                course.getDescription(),
+                course.getCategory(),
+                course.getType(),
+                course.getGradeRange(),
+                course.getMinAge(),
+                course.getMaxAge(),
+                course.getPrice(),
+                formatDate(course.getNextSessionDate()),
+                course.getLocation(),
+                course.getPopularity()
+        );
+    }
+
+    public CourseHit withPopularity(double popularity) {
+        return new CourseHit(id, tenantId, title, description, category, type, gradeRange,
+                minAge, maxAge, price, nextSessionDate, location, popularity);
+    }
+
+    /**
+     * ISO-8601 in UTC, the same text Jackson writes for a {@link ZonedDateTime}. Dates already
+     * in UTC, which is every date this application stores, are written digit by digit, since
+     * the formatter allocates several hundred bytes per call and runs for every hit.
+     */
+    static String formatDate(ZonedDateTime date) {
+        if (date == null) {
+            return null;
+        }
+        if (!ZoneOffset.UTC.equals(date.getOffset()) || date.getYear() < 0 || date.getYear() > 9999) {
+            return DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+        }
+        // yyyy-MM-ddTHH:mm:ss, then the fraction in groups of three digits as ISO_INSTANT does
+        byte[] text = new byte[30];
+        int length = 0;
+        length = digits(text, length, date.getYear(), 4);
+        text[length++] = '-';
+        length = digits(text, length, date.getMonthValue(), 2);
+        text[length++] = '-';
+        length = digits(text, length, date.getDayOfMonth(), 2);
+        text[length++] = 'T';
+        length = digits(text, length, date.getHour(), 2);
+        text[length++] = ':';
+        length = digits(text, length, date.getMinute(), 2);
+        text[length++] = ':';
+        length = digits(text, length, date.getSecond(), 2);
+        int nano = date.getNano();
+        if (nano != 0) {
+            text[length++] = '.';
+            if (nano % 1_000_000 == 0) {
+                length = digits(text, length, nano / 1_000_000, 3);
+            } else if (nano % 1_000 == 0) {
+                length = digits(text, length, nano / 1_000, 6);
+            } else {
+                length = digits(text, length, nano, 9);
+            }
+        }
+        text[length++] = 'Z';
+        return new String(text, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int digits(byte[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+}
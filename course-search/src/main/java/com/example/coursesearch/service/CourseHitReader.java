@@ -0,0 +1,88 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.BasicDateTimeConverter;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a stored course straight from its {@code _source} into a {@link CourseHit}, so a
+ * search hit costs one record instead of a {@code CourseDocument} populated through Spring
+ * Data's entity mapping and then copied. Field names and stored forms are the ones
+ * {@code CourseDocument} is written with.
+ */
+@ReadingConverter
+public class CourseHitReader implements Converter<Map<String, Object>, CourseHit> {
+
+    private static final BasicDateTimeConverter DATES = new BasicDateTimeConverter();
+
+    @Override
+    public CourseHit convert(Map<String, Object> source) {
+        Object id = source instanceof Document document && document.hasId() ? document.getId() : source.get("id");
+        return new CourseHit(
+                string(id),
+                string(source.get("tenantId")),
+                string(source.get("title")),
+                string(source.get("description")),
+                string(source.get("category")),
+                string(source.get("type")),
+                string(source.get("gradeRange")),
+                integer(source.get("minAge")),
+                integer(source.get("maxAge")),
+                decimal(source.get("price")),
+                date(source.get("nextSessionDate")),
+                location(source.get("location")),
+                decimal(source.get("popularity"))
+        );
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Integer integer(Object value) {
+        if (value instanceof Integer number) {
+            return number;
+        }
+        return value instanceof Number number ? Integer.valueOf(number.intValue()) : null;
+    }
+
+    private static Double decimal(Object value) {
+        if (value instanceof Double number) {
+            return number;
+        }
+        return value instanceof Number number ? Double.valueOf(number.doubleValue()) : null;
+    }
+
+    private static String date(Object value) {
+        return value instanceof String text ? CourseHit.formatDate((ZonedDateTime) DATES.read(text)) : null;
+    }
+
+    /**
+     * The object form Spring Data writes, plus the {@code "lat,lon"} string and
+     * {@code [lon, lat]} array forms Elasticsearch also accepts for a geo point.
+     */
+    private static GeoPoint location(Object value) {
+        if (value instanceof Map<?, ?> point && point.get("lat") instanceof Number lat
+                && point.get("lon") instanceof Number lon) {
+            return new GeoPoint(lat.doubleValue(), lon.doubleValue());
+        }
+        if (value instanceof String text) {
+            int comma = text.indexOf(',');
+            if (comma > 0) {
+                return new GeoPoint(Double.parseDouble(text.substring(0, comma).trim()),
+                        Double.parseDouble(text.substring(comma + 1).trim()));
+            }
+        }
+        if (value instanceof List<?> point && point.size() == 2
+                && point.get(0) instanceof Number lon && point.get(1) instanceof Number lat) {
+            return new GeoPoint(lat.doubleValue(), lon.doubleValue());
+        }
+        return null;
+    }
+}
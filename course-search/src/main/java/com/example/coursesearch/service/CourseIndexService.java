@@ -6,12 +6,21 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,28 +28,117 @@ public class CourseIndexService {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseIndexService.class);
 
+    private static final int DICTIONARY_BATCH = 10_000;
+
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final LocalSearchIndex localSearchIndex;
+    private final TenantIndexResolver tenantIndexResolver;
+    private final IndexGeneration indexGeneration;
+    private final SpellingDictionary spellingDictionary;
 
+    /**
+     * Creates missing indices, brings the mapping of existing ones up to date, and seeds them with the sample courses when the catalog is
+     * empty. A catalog that already holds courses is kept, since acknowledged writes that
+     * have left the write-ahead log only survive there; the in-process index and spelling
+     * dictionary are then loaded from it without collecting it first.
+     */
     public void indexSampleCourses() {
         try {
-            elasticsearchOperations.indexOps(CourseDocument.class).delete();
-            elasticsearchOperations.indexOps(CourseDocument.class).create();
-            elasticsearchOperations.indexOps(CourseDocument.class).putMapping();
+            ensureMapping(elasticsearchOperations.indexOps(CourseDocument.class), null);
+            for (String tenantId : tenantIndexResolver.dedicatedTenants()) {
+                ensureMapping(elasticsearchOperations.indexOps(tenantIndexResolver.indexFor(tenantId)),
+                        CourseDocument.class);
+            }
 
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream("sample-courses.json");
-            List<CourseDocument> courses = objectMapper.readValue(inputStream, new TypeReference<List<CourseDocument>>() {});
-            
+            IndexCoordinates allIndices = tenantIndexResolver.searchIndex(null);
+            long existing = elasticsearchOperations.count(Query.findAll(), CourseDocument.class, allIndices);
+            if (existing > 0) {
+                logger.info("Keeping the {} courses already indexed", loadIndexed(allIndices));
+            } else {
+                InputStream inputStream = getClass().getClassLoader().getResourceAsStream("sample-courses.json");
+                List<CourseDocument> courses = objectMapper.readValue(inputStream, new TypeReference<List<CourseDocument>>() {});
+                courses.forEach(course -> course.setTitleSuggest(course.getTitle()));
 
-            courses.forEach(course -> course.setTitleSuggest(course.getTitle()));
-            
-            courseRepository.saveAll(courses);
-            logger.info("Indexed " + courses.size() + " courses into es.");
-            logger.info(courses.get(0).getId() + " → " + courses.get(0).getNextSessionDate());
+                Map<Boolean, List<CourseDocument>> byIsolation = courses.stream()
+                        .collect(Collectors.partitioningBy(course -> tenantIndexResolver.isDedicated(course.getTenantId())));
+                courseRepository.saveAll(byIsolation.get(false));
+                byIsolation.get(true).stream()
+                        .collect(Collectors.groupingBy(CourseDocument::getTenantId))
+                        .forEach((tenantId, tenantCourses) ->
+                                elasticsearchOperations.save(tenantCourses, tenantIndexResolver.indexFor(tenantId)));
+                logger.info("Indexed " + courses.size() + " sample courses into es.");
 
+                if (localSearchIndex.isEnabled()) {
+                    localSearchIndex.load(courses);
+                }
+                spellingDictionary.load(courses);
+            }
+            indexGeneration.advance();
         } catch (Exception e) {
             throw new RuntimeException("Failed to index", e);
         }
     }
+
+    /**
+     * Streams the indexed catalog into the in-process index, when it is enabled, and into the
+     * spelling dictionary in batches, which is rebuilt once at the end. Only the in-process
+     * index keeps the documents; without it only the fields the dictionary reads are fetched.
+     *
+     * @return the number of courses streamed
+     */
+    private long loadIndexed(IndexCoordinates allIndices) {
+        Query query = Query.findAll();
+        if (!localSearchIndex.isEnabled()) {
+            query.addSourceFilter(new FetchSourceFilter(true, new String[]{"tenantId", "title", "description"}, null));
+        }
+        List<CourseDocument> batch = new ArrayList<>(DICTIONARY_BATCH);
+        long[] count = {0};
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(query, CourseDocument.class, allIndices)) {
+            Iterator<CourseDocument> courses = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return hits.hasNext();
+                }
+
+                @Override
+                public CourseDocument next() {
+                    CourseDocument course = hits.next().getContent();
+                    count[0]++;
+                    batch.add(course);
+                    if (batch.size() == DICTIONARY_BATCH) {
+                        spellingDictionary.add(batch);
+                        batch.clear();
+                    }
+                    return course;
+                }
+            };
+            if (localSearchIndex.isEnabled()) {
+                localSearchIndex.load(courses);
+            } else {
+                courses.forEachRemaining(course -> {});
+            }
+        }
+        if (!batch.isEmpty()) {
+            spellingDictionary.add(batch);
+        }
+        spellingDictionary.rebuild();
+        return count[0];
+    }
+
+    /**
+     * Creates the index if it is missing and puts the current mapping either way: fields are
+     * only ever added, which Elasticsearch applies to an existing index in place, so an index
+     * created by an older version gains them without a reindex.
+     *
+     * @param mappedClass entity whose mapping a non-entity index gets, or {@code null} for the entity's own index
+     */
+    private static void ensureMapping(IndexOperations indexOps, Class<?> mappedClass) {
+        if (!indexOps.exists()) {
+            indexOps.create();
+        }
+        indexOps.putMapping(mappedClass == null ? indexOps.createMapping() : indexOps.createMapping(mappedClass));
+    }
 }
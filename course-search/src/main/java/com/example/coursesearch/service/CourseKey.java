@@ -0,0 +1,10 @@
+package com.example.coursesearch.service;
+
+/**
+ * Identifies a course and where it is indexed: ids are unique across the catalog, and the
+ * tenant picks the index and routing that updates to the course go to.
+ *
+ * @param tenantId the course's tenant, or {@code null} for a course without one
+ */
+public record CourseKey(String tenantId, String courseId) {
+}
@@ -0,0 +1,319 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented slice of the catalog. Filters and sort keys are read from
+ * primitive arrays so a scan touches as little memory as possible. Popularity updates
+ * produce a new segment that shares every other column.
+ */
+final class CourseSegment {
+
+    static final long NULL_KEY = Long.MAX_VALUE;
+
+    private final CourseDocument[] docs;
+    private final CourseHit[] hits;
+    private final String[] titles;
+    private final String[] descriptions;
+    private final String[] tenantIds;
+    private final String[] categories;
+    private final String[] types;
+    private final int[] minAges;
+    private final double[] prices;
+    private final long[] sessionEpochMillis;
+    private final double[] lats;
+    private final double[] lons;
+    private final double[] popularities;
+    private final GeoGrid geoGrid;
+    private final String[] sortedIds;
+    private final int[] sortedIdPositions;
+
+    CourseSegment(List<CourseDocument> courses) {
+        int n = courses.size();
+        this.docs = courses.toArray(new CourseDocument[0]);
+        this.hits = new CourseHit[n];
+        this.titles = new String[n];
+        this.descriptions = new String[n];
+        this.tenantIds = new String[n];
+        this.categories = new String[n];
+        this.types = new String[n];
+        this.minAges = new int[n];
+        this.prices = new double[n];
+        this.sessionEpochMillis = new long[n];
+        this.lats = new double[n];
+        this.lons = new double[n];
+        this.popularities = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            CourseDocument course = docs[i];
+            hits[i] = CourseHit.from(course);
+            titles[i] = lower(course.getTitle());
+            descriptions[i] = lower(course.getDescription());
+            tenantIds[i] = course.getTenantId();
+            categories[i] = course.getCategory();
+            types[i] = course.getType();
+            minAges[i] = course.getMinAge() == null ? Integer.MIN_VALUE : course.getMinAge();
+            prices[i] = course.getPrice() == null ? Double.NaN : course.getPrice();
+            sessionEpochMillis[i] = course.getNextSessionDate() == null
+                    ? NULL_KEY
+                    : course.getNextSessionDate().toInstant().toEpochMilli();
+            lats[i] = course.getLocation() == null ? Double.NaN : course.getLocation().getLat();
+            lons[i] = course.getLocation() == null ? Double.NaN : course.getLocation().getLon();
+            popularities[i] = course.getPopularity() == null ? 0.0 : course.getPopularity();
+        }
+        this.geoGrid = new GeoGrid(lats, lons);
+
+        Integer[] byId = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byId[i] = i;
+        }
+        Arrays.sort(byId, Comparator.comparing(i -> docs[i].getId(), Comparator.nullsFirst(Comparator.naturalOrder())));
+        this.sortedIds = new String[n];
+        this.sortedIdPositions = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedIds[i] = docs[byId[i]].getId();
+            sortedIdPositions[i] = byId[i];
+        }
+    }
+
+    private CourseSegment(CourseSegment source, CourseDocument[] docs, CourseHit[] hits, double[] popularities) {
+        this.docs = docs;
+        this.hits = hits;
+        this.popularities = popularities;
+        this.titles = source.titles;
+        this.descriptions = source.descriptions;
+        this.tenantIds = source.tenantIds;
+        this.categories = source.categories;
+        this.types = source.types;
+        this.minAges = source.minAges;
+        this.prices = source.prices;
+        this.sessionEpochMillis = source.sessionEpochMillis;
+        this.lats = source.lats;
+        this.lons = source.lons;
+        this.geoGrid = source.geoGrid;
+        this.sortedIds = source.sortedIds;
+        this.sortedIdPositions = source.sortedIdPositions;
+    }
+
+    int size() {
+        return docs.length;
+    }
+
+    CourseDocument doc(int index) {
+        return docs[index];
+    }
+
+    /**
+     * Response view of the document, built once per segment rather than per search.
+     */
+    CourseHit hit(int index) {
+        return hits[index];
+    }
+
+    long sessionEpochMillis(int index) {
+        return sessionEpochMillis[index];
+    }
+
+    double popularity(int index) {
+        return popularities[index];
+    }
+
+    /**
+     * @return position of the document with the given id, or -1 if it is not in this segment
+     */
+    int indexOf(String id) {
+        int found = Arrays.binarySearch(sortedIds, id, Comparator.nullsFirst(Comparator.naturalOrder()));
+        return found < 0 ? -1 : sortedIdPositions[found];
+    }
+
+    /**
+     * @param deltas popularity to add, by position in this segment
+     * @return a copy of this segment with the popularity column, hits and documents of the
+     * given positions replaced; the documents this segment holds are left untouched
+     */
+    CourseSegment withPopularity(Map<Integer, Double> deltas) {
+        CourseDocument[] updatedDocs = docs.clone();
+        CourseHit[] updatedHits = hits.clone();
+        double[] updatedPopularities = popularities.clone();
+        deltas.forEach((index, delta) -> {
+            double popularity = popularities[index] + delta;
+            updatedPopularities[index] = popularity;
+            updatedDocs[index] = copyWithPopularity(docs[index], popularity);
+            updatedHits[index] = hits[index].withPopularity(popularity);
+        });
+        return new CourseSegment(this, updatedDocs, updatedHits, updatedPopularities);
+    }
+
+    static CourseDocument copyWithPopularity(CourseDocument course, Double popularity) {
+        CourseDocument copy = new CourseDocument();
+        copy.setId(course.getId());
+        copy.setTenantId(course.getTenantId());
+        copy.setTitle(course.getTitle());
+        copy.setDescription(course.getDescription());
+        copy.setCategory(course.getCategory());
+        copy.setType(course.getType());
+        copy.setGradeRange(course.getGradeRange());
+        copy.setMinAge(course.getMinAge());
+        copy.setMaxAge(course.getMaxAge());
+        copy.setPrice(course.getPrice());
+        copy.setNextSessionDate(course.getNextSessionDate());
+        copy.setLocation(course.getLocation());
+        copy.setPopularity(popularity);
+        copy.setTitleSuggest(course.getTitleSuggest());
+        return copy;
+    }
+
+    /**
+     * Scores and filters every document in the segment, offering matches to the heap.
+     *
+     * @return number of matching documents
+     */
+    long collect(PreparedQuery query, int segmentIndex, TopKHeap heap) {
+        long refBase = (long) segmentIndex << 32;
+        if (query.hasRadius()) {
+            if (geoGrid.locatedCount() == 0) {
+                return 0;
+            }
+            int[] candidates = geoGrid.candidates(query.originLat(), query.originLon(), query.radiusKm());
+            if (candidates != null) {
+                long matches = 0;
+                for (int i : candidates) {
+                    if (matches(query, i)) {
+                        matches++;
+                        heap.offer(sortKey(query, i), refBase | i);
+                    }
+                }
+                return matches;
+            }
+        }
+
+        long matches = 0;
+        for (int i = 0; i < docs.length; i++) {
+            if (matches(query, i)) {
+                matches++;
+                heap.offer(sortKey(query, i), refBase | i);
+            }
+        }
+        return matches;
+    }
+
+    private boolean matches(PreparedQuery query, int i) {
+        if (query.tenantId() != null && !query.tenantId().equals(tenantIds[i])) {
+            return false;
+        }
+        if (query.category() != null && !query.category().equals(categories[i])) {
+            return false;
+        }
+        if (query.type() != null && !query.type().equals(types[i])) {
+            return false;
+        }
+        if (query.hasAgeFilter()) {
+            int minAge = minAges[i];
+            if (minAge == Integer.MIN_VALUE || minAge < query.ageFrom() || minAge > query.ageTo()) {
+                return false;
+            }
+        }
+        if (query.hasPriceFilter()) {
+            double price = prices[i];
+            if (Double.isNaN(price) || price < query.priceFrom() || price > query.priceTo()) {
+                return false;
+            }
+        }
+        if (query.startEpochMillis() != Long.MIN_VALUE) {
+            long session = sessionEpochMillis[i];
+            if (session == NULL_KEY || session < query.startEpochMillis()) {
+                return false;
+            }
+        }
+        if (query.hasRadius()) {
+            if (Double.isNaN(lats[i])
+                    || GeoGrid.distanceKm(query.originLat(), query.originLon(), lats[i], lons[i]) > query.radiusKm()) {
+                return false;
+            }
+        }
+        if (!query.titlePrefixes().isEmpty() && !TitlePrefix.matches(titles[i], query.titlePrefixes())) {
+            return false;
+        }
+        return query.keyword() == null || matchesKeyword(query, i);
+    }
+
+    private boolean matchesKeyword(PreparedQuery query, int i) {
+        String title = titles[i];
+        String description = descriptions[i];
+        if (title != null && title.contains(query.keyword())) {
+            return true;
+        }
+        if (description != null && description.contains(query.keyword())) {
+            return true;
+        }
+        if (title != null) {
+            for (String word : query.keywordWords()) {
+                if (title.contains(word)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lightweight stand-in for BM25: a full-keyword hit in the title outweighs one in the
+     * description, and each individual keyword word found in the title adds a share.
+     */
+    double textScore(PreparedQuery query, int i) {
+        String title = titles[i];
+        String description = descriptions[i];
+        double score = 0.0;
+        if (title != null && title.contains(query.keyword())) {
+            score += 2.0;
+        }
+        if (description != null && description.contains(query.keyword())) {
+            score += 1.0;
+        }
+        if (title != null && !query.keywordWords().isEmpty()) {
+            double share = 1.0 / query.keywordWords().size();
+            for (String word : query.keywordWords()) {
+                if (title.contains(word)) {
+                    score += share;
+                }
+            }
+        }
+        return score;
+    }
+
+    private long sortKey(PreparedQuery query, int i) {
+        switch (query.sortMode()) {
+            case PRICE_ASC:
+                return Double.isNaN(prices[i]) ? NULL_KEY : orderedBits(prices[i]);
+            case PRICE_DESC:
+                return Double.isNaN(prices[i]) ? NULL_KEY : ~orderedBits(prices[i]);
+            case DISTANCE:
+                return Double.isNaN(lats[i])
+                        ? NULL_KEY
+                        : orderedBits(GeoGrid.distanceKm(query.originLat(), query.originLon(), lats[i], lons[i]));
+            case RELEVANCE:
+                return ~orderedBits(textScore(query, i));
+            case POPULARITY:
+                return ~orderedBits(popularities[i]);
+            default:
+                return sessionEpochMillis[i];
+        }
+    }
+
+    /**
+     * Maps a double onto a long whose signed ordering matches the double ordering.
+     */
+    static long orderedBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : QueryCanonicalizer.fold(value);
+    }
+}
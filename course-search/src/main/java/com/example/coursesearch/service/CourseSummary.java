@@ -0,0 +1,35 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+
+public record CourseSummary(
+        String id,
+        String title,
+        String category,
+        String type,
+        Double price,
+        String nextSessionDate
+) {
+
+    public static CourseSummary from(CourseDocument course) {
+        return new CourseSummary(
+                course.getId(),
+                course.getTitle(),
+                course.getCategory(),
+                course.getType(),
+                course.getPrice(),
+                CourseHit.formatDate(course.getNextSessionDate())
+        );
+    }
+
+    public static CourseSummary from(CourseHit course) {
+        return new CourseSummary(
+                course.id(),
+                course.title(),
+                course.category(),
+                course.type(),
+                course.price(),
+                course.nextSessionDate()
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A single catalog change. {@code course} is the full replacement document for an upsert
+ * and is ignored for a delete.
+ */
+public record CourseWrite(@NotNull Op op, @NotBlank String id, CourseDocument course) {
+
+    public enum Op {
+        UPSERT,
+        DELETE
+    }
+
+    public static CourseWrite upsert(String id, CourseDocument course) {
+        return new CourseWrite(Op.UPSERT, id, course);
+    }
+
+    public static CourseWrite delete(String id) {
+        return new CourseWrite(Op.DELETE, id, null);
+    }
+}
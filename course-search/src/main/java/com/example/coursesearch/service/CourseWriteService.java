@@ -0,0 +1,364 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts catalog writes without touching the index on the request thread. A write is
+ * acknowledged once it is in the write-ahead log and the bounded queue; a single batcher
+ * thread drains the queue, keeps only the last write per id, and flushes a batch when it
+ * reaches {@code batch-size} writes or {@code flush-interval-ms} after its first write.
+ *
+ * <p>Writes are full replacements or deletes, so replaying log entries that were already
+ * flushed is harmless. A replacement keeps the course's {@code popularity}, which clients
+ * never send and {@link PopularityService} accumulates in the index. The log is checkpointed after every flushed batch: it rotates into
+ * segments of {@code wal-segment-bytes} and drops a segment once all of it is flushed.
+ *
+ * <p>Course ids are unique across the catalog; a course's tenant only picks its index and
+ * routing. That is why a delete removes the id from every index, and why an upsert that
+ * changes the tenant first deletes the copy filed under the old one.
+ */
+@Service
+public class CourseWriteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseWriteService.class);
+
+    private static final long MAX_RETRY_BACKOFF_MS = 5_000;
+
+    static final String REPLACE_SCRIPT = "def popularity = ctx._source.popularity; ctx._source.clear(); "
+            + "ctx._source.putAll(params.course); ctx._source.popularity = popularity";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final LocalSearchIndex localSearchIndex;
+    private final TenantIndexResolver tenantIndexResolver;
+    private final IndexGeneration indexGeneration;
+    private final SpellingDictionary spellingDictionary;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private final BlockingQueue<CourseWrite> queue;
+    private final WriteAheadLog writeAheadLog;
+    private final List<CourseWrite> recovered;
+    private final Object appendLock = new Object();
+    private final Thread batcher;
+
+    private volatile boolean running = true;
+    private boolean checkpointing = true;
+
+    public CourseWriteService(
+            ElasticsearchOperations elasticsearchOperations,
+            LocalSearchIndex localSearchIndex,
+            TenantIndexResolver tenantIndexResolver,
+            IndexGeneration indexGeneration,
+            SpellingDictionary spellingDictionary,
+            ObjectMapper objectMapper,
+            @Value("${search.writes.queue-capacity:10000}") int queueCapacity,
+            @Value("${search.writes.batch-size:500}") int batchSize,
+            @Value("${search.writes.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${search.writes.wal-path:data/course-writes.wal}") String walPath,
+            @Value("${search.writes.wal-segment-bytes:67108864}") long walSegmentBytes
+    ) {
+        if (queueCapacity < 1 || batchSize < 1 || flushIntervalMs < 1 || walSegmentBytes < 1) {
+            throw new IllegalArgumentException("Invalid search.writes settings");
+        }
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.localSearchIndex = localSearchIndex;
+        this.tenantIndexResolver = tenantIndexResolver;
+        this.indexGeneration = indexGeneration;
+        this.spellingDictionary = spellingDictionary;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writeAheadLog = new WriteAheadLog(Path.of(walPath), objectMapper, walSegmentBytes);
+        this.recovered = writeAheadLog.readAll();
+        this.batcher = new Thread(this::runBatcher, "course-write-batcher");
+        this.batcher.setDaemon(true);
+    }
+
+    /**
+     * Starts flushing: first the writes recovered from the log, then the queue. Called once the
+     * startup indexing is done so that it cannot overwrite them.
+     */
+    public void start() {
+        if (!recovered.isEmpty()) {
+            logger.info("Replaying {} writes from the write-ahead log", recovered.size());
+        }
+        batcher.start();
+    }
+
+    public void upsert(String id, CourseDocument course) {
+        accept(List.of(CourseWrite.upsert(id, course)));
+    }
+
+    public void delete(String id) {
+        accept(List.of(CourseWrite.delete(id)));
+    }
+
+    /**
+     * Logs and enqueues the writes as one unit.
+     *
+     * @throws WriteQueueFullException if the queue cannot take all of them
+     */
+    public void accept(List<CourseWrite> writes) {
+        for (CourseWrite write : writes) {
+            validate(write);
+        }
+        synchronized (appendLock) {
+            if (queue.remainingCapacity() < writes.size()) {
+                throw new WriteQueueFullException("Write queue is full, retry later");
+            }
+            writeAheadLog.append(writes);
+            queue.addAll(writes);
+        }
+    }
+
+    private void validate(CourseWrite write) {
+        if (write.op() == CourseWrite.Op.UPSERT) {
+            if (write.course() == null) {
+                throw new IllegalArgumentException("Upsert of course " + write.id() + " has no course");
+            }
+            write.course().setId(write.id());
+            tenantIndexResolver.indexFor(write.course().getTenantId());
+        }
+    }
+
+    private void runBatcher() {
+        for (int from = 0; from < recovered.size(); from += batchSize) {
+            flushWithRetry(recovered.subList(from, Math.min(from + batchSize, recovered.size())));
+        }
+
+        List<CourseWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CourseWrite first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    CourseWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flushWithRetry(batch);
+                batch.clear();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retries transient failures with backoff; meanwhile the queue fills up and pushes back on
+     * callers. Writes still pending at shutdown stay in the log and are replayed on restart.
+     */
+    private void flushWithRetry(List<CourseWrite> batch) {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                flush(batch);
+                break;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    logger.error("Shutting down with {} unflushed writes, they stay in the write-ahead log", batch.size());
+                    stopCheckpointing();
+                    return;
+                }
+                logger.error("Flushing {} course writes failed, retrying in {} ms", batch.size(), backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    stopCheckpointing();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+
+        synchronized (appendLock) {
+            if (checkpointing) {
+                writeAheadLog.markFlushed(batch.size());
+            }
+        }
+    }
+
+    /**
+     * Checkpoints count flushed entries from the start of the log, so once a batch is given up
+     * nothing after it may be checkpointed either; the whole tail is replayed on restart.
+     */
+    private void stopCheckpointing() {
+        synchronized (appendLock) {
+            checkpointing = false;
+        }
+    }
+
+    void flush(List<CourseWrite> batch) {
+        Map<String, CourseWrite> latest = new LinkedHashMap<>();
+        for (CourseWrite write : batch) {
+            latest.put(write.id(), write);
+        }
+
+        List<CourseDocument> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (CourseWrite write : latest.values()) {
+            if (write.op() == CourseWrite.Op.UPSERT) {
+                write.course().setTitleSuggest(write.course().getTitle());
+                upserts.add(write.course());
+            } else {
+                deletes.add(write.id());
+            }
+        }
+
+        Set<IndexCoordinates> written = new LinkedHashSet<>();
+        if (!deletes.isEmpty()) {
+            elasticsearchOperations.delete(DeleteQuery.builder(elasticsearchOperations.idsQuery(deletes)).build(),
+                    CourseDocument.class, tenantIndexResolver.searchIndex(null));
+            written.add(tenantIndexResolver.searchIndex(null));
+        }
+        if (!upserts.isEmpty()) {
+            Map<String, Double> movedPopularity = deleteMovedCopies(upserts, written);
+            written.addAll(saveUpserts(upserts, movedPopularity));
+        }
+        // Everything keyed on the generation is rebuilt as soon as it moves, so the batch has
+        // to be searchable first; bulk writes do not refresh on their own.
+        written.forEach(index -> elasticsearchOperations.indexOps(index).refresh());
+        if (localSearchIndex.isEnabled()) {
+            localSearchIndex.apply(upserts, deletes);
+        }
+        spellingDictionary.add(upserts);
+        indexGeneration.advance();
+        logger.info("Flushed {} upserts and {} deletes ({} writes before coalescing)",
+                upserts.size(), deletes.size(), batch.size());
+    }
+
+    /**
+     * Deletes the indexed copies of upserted courses whose tenant changed: they sit in another
+     * index or under another routing, where the upsert would not replace them. Only the
+     * tenant and popularity of the existing copies are fetched.
+     *
+     * @return the popularity of the deleted copies by course id
+     */
+    private Map<String, Double> deleteMovedCopies(List<CourseDocument> upserts, Set<IndexCoordinates> written) {
+        Map<String, CourseDocument> byId = new HashMap<>();
+        upserts.forEach(course -> byId.put(course.getId(), course));
+        Query query = elasticsearchOperations.idsQuery(List.copyOf(byId.keySet()));
+        query.setPageable(PageRequest.of(0, byId.size()));
+        query.addSourceFilter(new FetchSourceFilter(true, new String[]{"tenantId", "popularity"}, null));
+
+        Map<String, Double> popularity = new HashMap<>();
+        for (SearchHit<CourseDocument> hit : elasticsearchOperations.search(query, CourseDocument.class,
+                tenantIndexResolver.searchIndex(null)).getSearchHits()) {
+            CourseDocument existing = hit.getContent();
+            CourseDocument incoming = byId.get(hit.getId());
+            if (incoming == null || Objects.equals(existing.getTenantId(), incoming.getTenantId())) {
+                continue;
+            }
+            IndexCoordinates index = IndexCoordinates.of(hit.getIndex());
+            elasticsearchOperations.delete(existing, index);
+            written.add(index);
+            if (existing.getPopularity() != null) {
+                popularity.merge(hit.getId(), existing.getPopularity(), Double::sum);
+            }
+            logger.info("Moving course {} from tenant {} to {}", hit.getId(), existing.getTenantId(), incoming.getTenantId());
+        }
+        return popularity;
+    }
+
+    /**
+     * Replaces each course's source with a scripted update that carries its current
+     * {@code popularity} over, or indexes the course as sent when it is new. A course that
+     * moved from another tenant is new in its target index and starts from its old popularity.
+     *
+     * @return the indices written to
+     */
+    private List<IndexCoordinates> saveUpserts(List<CourseDocument> upserts, Map<String, Double> movedPopularity) {
+        Map<IndexCoordinates, List<UpdateQuery>> byIndex = new LinkedHashMap<>();
+        for (CourseDocument course : upserts) {
+            Document source = elasticsearchOperations.getElasticsearchConverter().mapObject(course);
+            if (movedPopularity.containsKey(course.getId())) {
+                source.put("popularity", movedPopularity.get(course.getId()));
+            }
+            UpdateQuery.Builder update = UpdateQuery.builder(course.getId())
+                    .withScript(REPLACE_SCRIPT)
+                    .withScriptType(ScriptType.INLINE)
+                    .withLang("painless")
+                    .withParams(Map.of("course", source))
+                    .withUpsert(source)
+                    .withRetryOnConflict(3);
+            if (course.getTenantId() != null) {
+                update.withRouting(course.getTenantId());
+            }
+            byIndex.computeIfAbsent(tenantIndexResolver.indexFor(course.getTenantId()), index -> new ArrayList<>())
+                    .add(update.build());
+        }
+        byIndex.forEach((index, updates) -> dropRejected(() -> elasticsearchOperations.bulkUpdate(updates, index)));
+        return List.copyOf(byIndex.keySet());
+    }
+
+    /**
+     * Documents the index rejects would fail again on every retry, so they are logged and
+     * dropped; the rest of the bulk request has been applied.
+     */
+    private static void dropRejected(Runnable bulkWrite) {
+        try {
+            bulkWrite.run();
+        } catch (BulkFailureException e) {
+            logger.error("Dropping course writes rejected by the index: {}", e.getFailedDocuments());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        try {
+            batcher.join(flushIntervalMs + MAX_RETRY_BACKOFF_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeAheadLog.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.coursesearch.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-resolution lat/lon grid over the documents of one segment, stored in a compact
+ * sorted-cell layout: {@code cellKeys[c]} owns {@code docs[cellStarts[c] .. cellStarts[c + 1])}.
+ */
+final class GeoGrid {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double CELL_DEGREES = 0.25;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+    private static final int LON_CELLS = (int) Math.ceil(360.0 / CELL_DEGREES);
+    private static final int LAT_CELLS = (int) Math.ceil(180.0 / CELL_DEGREES);
+
+    private final long[] cellKeys;
+    private final int[] cellStarts;
+    private final int[] docs;
+
+    GeoGrid(double[] lats, double[] lons) {
+        int located = 0;
+        long[] packed = new long[lats.length];
+        for (int i = 0; i < lats.length; i++) {
+            if (!Double.isNaN(lats[i])) {
+                packed[located++] = cellKey(latCell(lats[i]), lonCell(lons[i])) << 32 | i;
+            }
+        }
+        packed = Arrays.copyOf(packed, located);
+        Arrays.sort(packed);
+
+        long[] keys = new long[located];
+        int[] starts = new int[located + 1];
+        int cells = 0;
+        this.docs = new int[located];
+        for (int i = 0; i < located; i++) {
+            long key = packed[i] >>> 32;
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+            }
+            docs[i] = (int) packed[i];
+        }
+        starts[cells] = located;
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStarts = Arrays.copyOf(starts, cells + 1);
+    }
+
+    int locatedCount() {
+        return docs.length;
+    }
+
+    /**
+     * Collects the ordinals of documents in the cells overlapping the bounding box of the
+     * circle, or {@code null} when the box is wide enough that a full scan is cheaper.
+     */
+    int[] candidates(double lat, double lon, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        if (lat - dLat <= -90 || lat + dLat >= 90) {
+            return null;
+        }
+        double spread = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat));
+        if (spread >= 1) {
+            return null;
+        }
+        double dLon = Math.toDegrees(Math.asin(spread));
+
+        int latFrom = latCell(lat - dLat);
+        int latTo = latCell(lat + dLat);
+        int lonFrom = (int) Math.floor((lon - dLon + 180.0) / CELL_DEGREES);
+        int lonTo = (int) Math.floor((lon + dLon + 180.0) / CELL_DEGREES);
+        long boxCells = (long) (latTo - latFrom + 1) * (lonTo - lonFrom + 1);
+        if (lonTo - lonFrom + 1 >= LON_CELLS || boxCells > cellKeys.length) {
+            return null;
+        }
+
+        int[] found = new int[16];
+        int count = 0;
+        for (int latCell = latFrom; latCell <= latTo; latCell++) {
+            for (int rawLon = lonFrom; rawLon <= lonTo; rawLon++) {
+                int cell = Arrays.binarySearch(cellKeys, cellKey(latCell, Math.floorMod(rawLon, LON_CELLS)));
+                if (cell < 0) {
+                    continue;
+                }
+                int from = cellStarts[cell];
+                int to = cellStarts[cell + 1];
+                if (count + (to - from) > found.length) {
+                    found = Arrays.copyOf(found, Math.max(found.length * 2, count + (to - from)));
+                }
+                System.arraycopy(docs, from, found, count, to - from);
+                count += to - from;
+            }
+        }
+        found = Arrays.copyOf(found, count);
+        Arrays.sort(found);
+        return found;
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static int latCell(double lat) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90.0) / CELL_DEGREES));
+    }
+
+    private static int lonCell(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180.0) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return (long) latCell * LON_CELLS + lonCell;
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.coursesearch.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Hedged requests against replicated shards. The first attempt runs with a preference that is
+ * stable per query, so repeated queries keep hitting the same shard copies and their caches;
+ * if it has not answered within the p95 of recent attempts, a second attempt is sent with a
+ * preference that Elasticsearch routes to a different copy (see {@link #hedgePreference}), and
+ * whichever succeeds first wins. The loser is cancelled, which aborts its HTTP request when
+ * the client runs on {@code InterruptibleElasticsearchTransport}.
+ * <p>
+ * Hedges are paid for from a budget that earns {@code budget} tokens per request, so at most
+ * that fraction of requests is duplicated. Attempts run on at most {@code max-threads}
+ * threads; when all are busy a search runs on the calling thread without a hedge.
+ */
+@Component
+public class HedgedSearchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedSearchExecutor.class);
+
+    private static final double MAX_BUDGET_TOKENS = 10.0;
+
+    private final boolean enabled;
+    private final double budget;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final LatencyWindow latencies;
+    private final ThreadPoolExecutor executor;
+
+    private double budgetTokens;
+
+    public HedgedSearchExecutor(
+            @Value("${search.hedging.enabled:false}") boolean enabled,
+            @Value("${search.hedging.budget:0.05}") double budget,
+            @Value("${search.hedging.min-delay-ms:5}") long minDelayMs,
+            @Value("${search.hedging.window-size:1000}") int windowSize,
+            @Value("${search.hedging.min-samples:100}") int minSamples,
+            @Value("${search.hedging.max-threads:64}") int maxThreads
+    ) {
+        if (budget < 0 || budget > 1 || minDelayMs < 0 || windowSize < 1 || minSamples < 1 || minSamples > windowSize
+                || maxThreads < 1) {
+            throw new IllegalArgumentException("Invalid search.hedging settings");
+        }
+        this.enabled = enabled;
+        this.budget = budget;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.minSamples = minSamples;
+        this.latencies = new LatencyWindow(windowSize);
+        AtomicInteger threads = new AtomicInteger();
+        // No queue: an attempt either gets a thread now or is rejected
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "search-hedge-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code attempt} once, or twice when the first call is slow. Each call gets its own
+     * preference string, so it has to build its request from scratch.
+     *
+     * @param affinity preference of the first attempt; equal queries should pass equal values
+     */
+    public <T> T execute(String affinity, Function<String, T> attempt) {
+        ExecutorCompletionService<T> attempts = new ExecutorCompletionService<>(executor);
+        depositBudget();
+        long primaryStart = System.nanoTime();
+        Future<T> primary;
+        try {
+            primary = attempts.submit(() -> timed(attempt, affinity));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Hedging pool saturated, searching without a hedge");
+            return timed(attempt, affinity);
+        }
+        Future<T> hedge = null;
+        long hedgeStart = 0;
+        try {
+            Future<T> done = attempts.poll(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            if (done == null && tryAcquireBudget()) {
+                logger.debug("Hedging search after {} ms", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos()));
+                hedgeStart = System.nanoTime();
+                try {
+                    hedge = attempts.submit(() -> timed(attempt, hedgePreference(affinity)));
+                } catch (RejectedExecutionException e) {
+                    refundBudget();
+                }
+            }
+            if (done == null) {
+                done = attempts.take();
+            }
+            try {
+                return done.get();
+            } catch (ExecutionException e) {
+                if (hedge == null) {
+                    throw unwrap(e);
+                }
+                return attempts.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            cancel(primary, primaryStart);
+            if (hedge != null) {
+                cancel(hedge, hedgeStart);
+            }
+        }
+    }
+
+    /**
+     * Cancels an attempt that is still running. Its time so far is recorded as a latency: the
+     * attempt took at least that long, and leaving slow losers out would bias the p95 low.
+     */
+    private void cancel(Future<?> attempt, long start) {
+        if (attempt.cancel(true)) {
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return the p95 of recent attempts, or {@link Long#MAX_VALUE} (never hedge) until enough
+     * attempts have been observed
+     */
+    long hedgeDelayNanos() {
+        if (latencies.count() < minSamples) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(minDelayNanos, latencies.p95());
+    }
+
+    LatencyWindow latencies() {
+        return latencies;
+    }
+
+    /**
+     * A preference that Elasticsearch routes to a different shard copy than {@code preference}.
+     * For a custom preference it picks, for shard {@code s}, the copy at
+     * {@code floorMod(31 * murmur3(preference) + hash(s), copies)}; two preferences whose
+     * hashes differ in parity therefore land on different copies whenever a shard has two or
+     * four copies, whatever the shard, and on a different copy with probability
+     * {@code (copies - 1) / copies} otherwise.
+     */
+    static String hedgePreference(String preference) {
+        int parity = Murmur3.hash(preference) & 1;
+        for (int offset = 1; ; offset++) {
+            String hedge = preference + "~" + offset;
+            if ((Murmur3.hash(hedge) & 1) != parity) {
+                return hedge;
+            }
+        }
+    }
+
+    private <T> T timed(Function<String, T> attempt, String preference) {
+        long start = System.nanoTime();
+        T result = attempt.apply(preference);
+        latencies.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private synchronized void depositBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budget);
+    }
+
+    private synchronized boolean tryAcquireBudget() {
+        if (budgetTokens < 1.0) {
+            return false;
+        }
+        budgetTokens -= 1.0;
+        return true;
+    }
+
+    private synchronized void refundBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + 1.0);
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * MurmurHash3 (x86, 32 bit, seed 0) of a string's UTF-16LE bytes, which is how
+     * Elasticsearch hashes routing values and custom preferences.
+     */
+    static final class Murmur3 {
+
+        private Murmur3() {
+        }
+
+        static int hash(String value) {
+            byte[] bytes = new byte[value.length() * 2];
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                bytes[i * 2] = (byte) c;
+                bytes[i * 2 + 1] = (byte) (c >>> 8);
+            }
+            return hash(bytes);
+        }
+
+        static int hash(byte[] bytes) {
+            final int c1 = 0xcc9e2d51;
+            final int c2 = 0x1b873593;
+            int h = 0;
+            int blocks = bytes.length & ~3;
+            for (int i = 0; i < blocks; i += 4) {
+                int k = (bytes[i] & 0xff) | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff) << 16 | bytes[i + 3] << 24;
+                k *= c1;
+                k = Integer.rotateLeft(k, 15);
+                k *= c2;
+                h ^= k;
+                h = Integer.rotateLeft(h, 13);
+                h = h * 5 + 0xe6546b64;
+            }
+            int k = 0;
+            switch (bytes.length & 3) {
+                case 3:
+                    k = (bytes[blocks + 2] & 0xff) << 16;
+                    // fall through
+                case 2:
+                    k |= (bytes[blocks + 1] & 0xff) << 8;
+                    // fall through
+                case 1:
+                    k |= bytes[blocks] & 0xff;
+                    k *= c1;
+                    k = Integer.rotateLeft(k, 15);
+                    k *= c2;
+                    h ^= k;
+                    break;
+                default:
+                    break;
+            }
+            h ^= bytes.length;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ring buffer of the most recent attempt latencies. The p95 is recomputed every
+     * {@code size / 16} samples rather than on every request.
+     */
+    static final class LatencyWindow {
+
+        private final long[] samples;
+        private final int refreshEvery;
+        private long recorded;
+        private volatile long p95 = Long.MAX_VALUE;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+            this.refreshEvery = Math.max(1, size / 16);
+        }
+
+        synchronized void record(long nanos) {
+            samples[(int) (recorded % samples.length)] = nanos;
+            recorded++;
+            if (recorded % refreshEvery == 0) {
+                refresh();
+            }
+        }
+
+        synchronized long count() {
+            return Math.min(recorded, samples.length);
+        }
+
+        long p95() {
+            return p95;
+        }
+
+        private void refresh() {
+            int n = (int) Math.min(recorded, samples.length);
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            p95 = sorted[Math.min(n - 1, (int) Math.ceil(n * 0.95) - 1)];
+        }
+    }
+}
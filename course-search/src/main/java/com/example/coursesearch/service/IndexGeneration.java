@@ -0,0 +1,24 @@
+package com.example.coursesearch.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the searchable catalog. It is advanced after every reindex and every flushed
+ * write batch, so anything derived from search results can be keyed on it instead of
+ * being invalidated explicitly.
+ */
+@Component
+public class IndexGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public long current() {
+        return generation.get();
+    }
+
+    public long advance() {
+        return generation.incrementAndGet();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.coursesearch.service;
+
+import java.util.List;
+
+public record InstantResult(List<String> suggestions, long totalHits, List<CourseSummary> hits) {
+}
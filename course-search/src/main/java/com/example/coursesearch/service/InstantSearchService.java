@@ -0,0 +1,217 @@
+package com.example.coursesearch.service;
+
+import co.elastic.clients.elasticsearch.core.search.Suggester;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.suggest.response.CompletionSuggestion;
+import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Search-as-you-type: one backend lookup returns the candidate courses for a prefix, and
+ * both the title completions and the top hits are cut from those candidates. When the
+ * candidate list for a prefix is complete, longer prefixes ("m" -> "ma" -> "mat") are
+ * answered by filtering it in memory instead of going back to the cluster. Candidate lists
+ * are keyed by index generation like {@link SearchResultCache}, so writes show up at once,
+ * and by tenant, so a tenant's lookups only ever see its own courses.
+ * <p>
+ * On Elasticsearch the lookup is the {@code titleSuggest} completion suggester, whose options
+ * carry the slim source of their course. The field has no contexts, so on the shared index
+ * the lookup is routed to the tenant's shard and other tenants' options are dropped here.
+ */
+@Service
+public class InstantSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstantSearchService.class);
+
+    static final int MAX_SUGGESTIONS = 10;
+    static final int MAX_HITS = 5;
+
+    private static final String SUGGESTION = "title";
+    private static final String[] SUMMARY_FIELDS =
+            {"id", "tenantId", "title", "category", "type", "price", "nextSessionDate", "popularity"};
+    // The order the in-process lookup ranks by
+    private static final Comparator<CourseHit> RANKING = Comparator
+            .comparing(CourseHit::popularity, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(CourseHit::nextSessionDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final LocalSearchIndex localSearchIndex;
+    private final TenantIndexResolver tenantIndexResolver;
+    private final IndexGeneration indexGeneration;
+    private final int candidateLimit;
+    private final Cache<String, Candidates> prefixCache;
+
+    public InstantSearchService(
+            ElasticsearchOperations elasticsearchOperations,
+            LocalSearchIndex localSearchIndex,
+            TenantIndexResolver tenantIndexResolver,
+            IndexGeneration indexGeneration,
+            @Value("${search.instant.candidate-limit:200}") int candidateLimit,
+            @Value("${search.instant.cache-size:10000}") long cacheSize,
+            @Value("${search.instant.cache-ttl-seconds:60}") long cacheTtlSeconds
+    ) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.localSearchIndex = localSearchIndex;
+        this.tenantIndexResolver = tenantIndexResolver;
+        this.indexGeneration = indexGeneration;
+        this.candidateLimit = candidateLimit;
+        this.prefixCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    public InstantResult instant(String input) {
+        return instant(null, input);
+    }
+
+    /**
+     * @param tenantId the tenant whose courses are searched, or {@code null} for every tenant
+     */
+    public InstantResult instant(String tenantId, String input) {
+        String prefix = TitlePrefix.normalize(input);
+        List<String> terms = TitlePrefix.terms(prefix);
+        if (terms.isEmpty()) {
+            return new InstantResult(List.of(), 0, List.of());
+        }
+
+        long generation = indexGeneration.current();
+        Candidates candidates = prefixCache.getIfPresent(key(generation, tenantId, prefix));
+        if (candidates == null) {
+            candidates = refineCachedPrefix(generation, tenantId, prefix, terms);
+            if (candidates == null) {
+                logger.debug("Instant search cache miss for prefix: {}", prefix);
+                candidates = fetch(tenantId, prefix, terms);
+            }
+            prefixCache.put(key(generation, tenantId, prefix), candidates);
+        }
+        return candidates.toResult();
+    }
+
+    /**
+     * Finds the longest shorter prefix with a complete candidate list and filters it down.
+     */
+    private Candidates refineCachedPrefix(long generation, String tenantId, String prefix, List<String> terms) {
+        for (int length = prefix.length() - 1; length > 0; length--) {
+            Candidates shorter = prefixCache.getIfPresent(key(generation, tenantId, prefix.substring(0, length)));
+            if (shorter != null && shorter.complete()) {
+                List<CourseSummary> matching = new ArrayList<>();
+                for (CourseSummary course : shorter.courses()) {
+                    if (course.title() != null && matches(QueryCanonicalizer.fold(course.title()), terms)) {
+                        matching.add(course);
+                    }
+                }
+                return new Candidates(matching, matching.size(), true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The rule of the backend the candidates came from: the completion suggester matches a
+     * title from its start, the in-process lookup any of its words.
+     */
+    private boolean matches(String foldedTitle, List<String> terms) {
+        return localSearchIndex.isEnabled()
+                ? TitlePrefix.matches(foldedTitle, terms)
+                : TitlePrefix.startsWith(foldedTitle, terms);
+    }
+
+    private static String key(long generation, String tenantId, String prefix) {
+        return generation + ":" + (tenantId == null ? "" : tenantId) + ":" + prefix;
+    }
+
+    private Candidates fetch(String tenantId, String prefix, List<String> terms) {
+        if (localSearchIndex.isEnabled()) {
+            return toCandidates(localSearchIndex.titlePrefixSearch(tenantId, terms, candidateLimit));
+        }
+
+        NativeQuery query = NativeQuery.builder()
+                .withSuggester(Suggester.of(suggester -> suggester.suggesters(SUGGESTION, field -> field
+                        .prefix(prefix)
+                        .completion(completion -> completion.field("titleSuggest").size(candidateLimit)))))
+                .withMaxResults(0)
+                .withTrackTotalHits(false)
+                .withSourceFilter(new FetchSourceFilter(true, SUMMARY_FIELDS, null))
+                .build();
+        if (tenantId != null) {
+            query.setRoute(tenantId);
+        }
+        SearchHits<CourseHit> hits = elasticsearchOperations.search(query, CourseHit.class,
+                tenantIndexResolver.searchIndex(tenantId));
+
+        List<CourseHit> matching = new ArrayList<>();
+        int options = 0;
+        for (CompletionSuggestion.Entry.Option<CourseHit> option : options(hits.getSuggest())) {
+            options++;
+            SearchHit<CourseHit> hit = option.getSearchHit();
+            if (hit != null && (tenantId == null || tenantId.equals(hit.getContent().tenantId()))) {
+                matching.add(hit.getContent());
+            }
+        }
+        matching.sort(RANKING);
+        List<CourseSummary> courses = matching.stream()
+                .map(CourseSummary::from)
+                .toList();
+        // Fewer options than asked for means the suggester had no more matches
+        return new Candidates(courses, courses.size(), options < candidateLimit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CompletionSuggestion.Entry.Option<CourseHit>> options(Suggest suggest) {
+        if (suggest == null || !(suggest.getSuggestion(SUGGESTION) instanceof CompletionSuggestion<?> suggestion)) {
+            return List.of();
+        }
+        List<CompletionSuggestion.Entry.Option<CourseHit>> options = new ArrayList<>();
+        for (CompletionSuggestion.Entry<?> entry : suggestion.getEntries()) {
+            for (CompletionSuggestion.Entry.Option<?> option : entry.getOptions()) {
+                options.add((CompletionSuggestion.Entry.Option<CourseHit>) option);
+            }
+        }
+        return options;
+    }
+
+    private Candidates toCandidates(SearchResult result) {
+        List<CourseSummary> courses = result.courses().stream()
+                .map(CourseSummary::from)
+                .toList();
+        return new Candidates(courses, result.total(), result.total() <= courses.size());
+    }
+
+    /**
+     * Candidate courses for a prefix, best first. {@code complete} means every match is
+     * included, so the list can answer any longer prefix on its own.
+     */
+    private record Candidates(List<CourseSummary> courses, long total, boolean complete) {
+
+        InstantResult toResult() {
+            Set<String> suggestions = new LinkedHashSet<>();
+            for (CourseSummary course : courses) {
+                if (suggestions.size() == MAX_SUGGESTIONS) {
+                    break;
+                }
+                if (course.title() != null) {
+                    suggestions.add(course.title());
+                }
+            }
+            List<CourseSummary> hits = courses.subList(0, Math.min(MAX_HITS, courses.size()));
+            return new InstantResult(List.copyOf(suggestions), total, hits);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * In-process search backend. The catalog is split into fixed-size immutable segments that
+ * are scanned in parallel on a dedicated {@link ForkJoinPool}; every segment keeps its own
+ * bounded top-k heap and the heaps are merged once all segments have reported.
+ */
+@Component
+public class LocalSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSearchIndex.class);
+
+    static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final boolean enabled;
+    private final int segmentSize;
+    private final ForkJoinPool pool;
+    private final RelevanceRanking relevanceRanking;
+
+    private volatile List<CourseSegment> segments = List.of();
+
+    public LocalSearchIndex(
+            @Value("${search.backend:elasticsearch}") String backend,
+            @Value("${search.local.segment-size:8192}") int segmentSize,
+            @Value("${search.local.parallelism:0}") int parallelism,
+            RelevanceRanking relevanceRanking
+    ) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("search.local.segment-size must be positive");
+        }
+        this.enabled = "local".equalsIgnoreCase(backend);
+        this.segmentSize = segmentSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.relevanceRanking = relevanceRanking;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void load(List<CourseDocument> courses) {
+        load(courses.iterator());
+    }
+
+    /**
+     * Loads a catalog course by course, buffering one segment at a time, so the source does
+     * not have to be materialized as a list first.
+     */
+    public synchronized void load(Iterator<CourseDocument> courses) {
+        List<CourseSegment> loaded = new ArrayList<>();
+        List<CourseDocument> batch = new ArrayList<>(segmentSize);
+        long count = 0;
+        while (courses.hasNext()) {
+            batch.add(courses.next());
+            count++;
+            if (batch.size() == segmentSize) {
+                loaded.add(new CourseSegment(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            loaded.add(new CourseSegment(batch));
+        }
+        segments = List.copyOf(loaded);
+        logger.info("Loaded {} courses into {} local segments", count, loaded.size());
+    }
+
+    /**
+     * Replaces and removes courses by id; a replaced course keeps its popularity, which
+     * clients do not send. Segments are immutable, so only the segments
+     * holding a changed id are rebuilt; new courses fill up the last segment and then go
+     * into new ones. A batch costs its size times the segment size, not the catalog size.
+     */
+    public synchronized void apply(Collection<CourseDocument> upserts, Collection<String> deletes) {
+        Map<String, CourseDocument> changed = new LinkedHashMap<>();
+        deletes.forEach(id -> changed.put(id, null));
+        upserts.forEach(course -> changed.put(course.getId(), course));
+
+        List<CourseSegment> current = segments;
+        Set<Integer> touched = new TreeSet<>();
+        for (String id : changed.keySet()) {
+            for (int s = 0; s < current.size(); s++) {
+                if (current.get(s).indexOf(id) >= 0) {
+                    touched.add(s);
+                    break;
+                }
+            }
+        }
+
+        List<CourseSegment> next = new ArrayList<>(current);
+        Set<String> placed = new HashSet<>();
+        for (int s : touched) {
+            CourseSegment segment = current.get(s);
+            List<CourseDocument> docs = new ArrayList<>(segment.size());
+            for (int i = 0; i < segment.size(); i++) {
+                String id = segment.doc(i).getId();
+                if (!changed.containsKey(id)) {
+                    docs.add(segment.doc(i));
+                } else if (changed.get(id) != null && placed.add(id)) {
+                    docs.add(CourseSegment.copyWithPopularity(changed.get(id), segment.doc(i).getPopularity()));
+                }
+            }
+            next.set(s, docs.isEmpty() ? null : new CourseSegment(docs));
+        }
+        next.removeIf(Objects::isNull);
+
+        List<CourseDocument> added = new ArrayList<>();
+        for (CourseDocument course : changed.values()) {
+            if (course != null && !placed.contains(course.getId())) {
+                added.add(course);
+            }
+        }
+        if (!added.isEmpty() && !next.isEmpty() && next.get(next.size() - 1).size() < segmentSize) {
+            CourseSegment last = next.remove(next.size() - 1);
+            List<CourseDocument> docs = new ArrayList<>(last.size() + added.size());
+            for (int i = 0; i < last.size(); i++) {
+                docs.add(last.doc(i));
+            }
+            docs.addAll(added);
+            added = docs;
+        }
+        for (int from = 0; from < added.size(); from += segmentSize) {
+            next.add(new CourseSegment(added.subList(from, Math.min(from + segmentSize, added.size()))));
+        }
+        segments = List.copyOf(next);
+    }
+
+    /**
+     * Applies accumulated popularity deltas to the course with the key's id and tenant. Segments are never modified
+     * in place: every affected segment is replaced by an updated copy and the new segment
+     * list is published at once, so searches see either all of a flush or none of it.
+     */
+    public synchronized void addPopularity(Map<CourseKey, Double> deltas) {
+        List<CourseSegment> current = segments;
+        Map<Integer, Map<Integer, Double>> bySegment = new HashMap<>();
+        deltas.forEach((key, delta) -> {
+            for (int s = 0; s < current.size(); s++) {
+                int index = current.get(s).indexOf(key.courseId());
+                if (index >= 0) {
+                    if (!Objects.equals(current.get(s).doc(index).getTenantId(), key.tenantId())) {
+                        return;
+                    }
+                    bySegment.computeIfAbsent(s, segment -> new HashMap<>()).merge(index, delta, Double::sum);
+                    return;
+                }
+            }
+        });
+        if (bySegment.isEmpty()) {
+            return;
+        }
+        List<CourseSegment> next = new ArrayList<>(current);
+        bySegment.forEach((s, segmentDeltas) -> next.set(s, current.get(s).withPopularity(segmentDeltas)));
+        segments = List.copyOf(next);
+    }
+
+    public SearchResult search(SearchQuery query) {
+        long end = (long) query.page() * query.size() + query.size();
+        if (end > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Result window is too large, page * size must not exceed " + MAX_RESULT_WINDOW);
+        }
+        return execute(PreparedQuery.of(query), query.page() * query.size(), (int) end);
+    }
+
+    /**
+     * Most popular courses whose title has a word starting with each of the given terms.
+     */
+    public SearchResult titlePrefixSearch(String tenantId, List<String> terms, int limit) {
+        return execute(PreparedQuery.titlePrefix(tenantId, terms), 0, limit);
+    }
+
+    private SearchResult execute(PreparedQuery prepared, int offset, int window) {
+        List<CourseSegment> snapshot = segments;
+        boolean rescore = prepared.sortMode() == PreparedQuery.SortMode.RELEVANCE;
+        int heapWindow = rescore ? Math.max(window, relevanceRanking.windowSize()) : window;
+
+        Partial merged = pool.invoke(new SegmentTask(snapshot, prepared, heapWindow, 0, snapshot.size()));
+
+        long[] refs = merged.heap().drainSorted();
+        if (rescore) {
+            rescoreWindow(snapshot, prepared, refs);
+        }
+        int pageEnd = Math.min(refs.length, window);
+        List<CourseHit> courses = new ArrayList<>(Math.max(0, pageEnd - offset));
+        for (int i = offset; i < pageEnd; i++) {
+            CourseSegment segment = snapshot.get((int) (refs[i] >>> 32));
+            courses.add(segment.hit((int) refs[i]));
+        }
+        return new SearchResult(merged.total(), courses);
+    }
+
+    /**
+     * Re-ranks the top window of text-ordered hits by text score times the recency and
+     * popularity boost, mirroring the Elasticsearch rescorer.
+     */
+    private void rescoreWindow(List<CourseSegment> snapshot, PreparedQuery query, long[] refs) {
+        int window = Math.min(refs.length, relevanceRanking.windowSize());
+        long now = System.currentTimeMillis();
+        TopKHeap rescored = new TopKHeap(window);
+        for (int i = 0; i < window; i++) {
+            CourseSegment segment = snapshot.get((int) (refs[i] >>> 32));
+            int doc = (int) refs[i];
+            double score = segment.textScore(query, doc)
+                    * relevanceRanking.boost(segment.sessionEpochMillis(doc), segment.popularity(doc), now);
+            rescored.offer(~CourseSegment.orderedBits(score), refs[i]);
+        }
+        System.arraycopy(rescored.drainSorted(), 0, refs, 0, window);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private record Partial(long total, TopKHeap heap) {
+    }
+
+    private static final class SegmentTask extends RecursiveTask<Partial> {
+
+        private final List<CourseSegment> segments;
+        private final PreparedQuery query;
+        private final int window;
+        private final int from;
+        private final int to;
+
+        SegmentTask(List<CourseSegment> segments, PreparedQuery query, int window, int from, int to) {
+            this.segments = segments;
+            this.query = query;
+            this.window = window;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= 1) {
+                if (from == to) {
+                    return new Partial(0, new TopKHeap(0));
+                }
+                CourseSegment segment = segments.get(from);
+                TopKHeap heap = new TopKHeap(Math.min(window, segment.size()));
+                return new Partial(segment.collect(query, from, heap), heap);
+            }
+            int mid = (from + to) >>> 1;
+            SegmentTask right = new SegmentTask(segments, query, window, mid, to);
+            right.fork();
+            Partial left = new SegmentTask(segments, query, window, from, mid).compute();
+            Partial other = right.join();
+            return new Partial(left.total() + other.total(), merge(left.heap(), other.heap()));
+        }
+
+        private TopKHeap merge(TopKHeap a, TopKHeap b) {
+            int needed = Math.min(window, a.size() + b.size());
+            TopKHeap target = a.capacity() >= b.capacity() ? a : b;
+            TopKHeap source = target == a ? b : a;
+            if (target.capacity() < needed) {
+                TopKHeap grown = new TopKHeap(needed);
+                grown.addAll(target);
+                target = grown;
+            }
+            target.addAll(source);
+            return target;
+        }
+    }
+}
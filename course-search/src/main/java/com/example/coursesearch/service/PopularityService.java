@@ -0,0 +1,253 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates impression and click events per course (tenant and id) in striped {@link LongAdder}s and
+ * periodically folds them into the {@code popularity} field with scripted bulk updates,
+ * so recording an event never costs a write of its own.
+ * <p>
+ * Course ids are not checked when an event is recorded: the index is the catalog, and a
+ * flush drops the updates it rejects as missing. A course's counters are dropped as soon
+ * as a flush finds them empty and are created again by its next event, so the map only
+ * holds courses that received events since the last flush, at most max-tracked-courses.
+ */
+@Service
+public class PopularityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityService.class);
+
+    static final String INCREMENT_SCRIPT =
+            "ctx._source.popularity = (ctx._source.popularity == null ? 0 : ctx._source.popularity) + params.delta";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final LocalSearchIndex localSearchIndex;
+    private final TenantIndexResolver tenantIndexResolver;
+    private final double clickWeight;
+    private final double impressionWeight;
+    private final int maxTrackedCourses;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<CourseKey, Counters> counters = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    public PopularityService(
+            ElasticsearchOperations elasticsearchOperations,
+            LocalSearchIndex localSearchIndex,
+            TenantIndexResolver tenantIndexResolver,
+            @Value("${search.popularity.click-weight:1.0}") double clickWeight,
+            @Value("${search.popularity.impression-weight:0.05}") double impressionWeight,
+            @Value("${search.popularity.max-tracked-courses:1000000}") int maxTrackedCourses,
+            @Value("${search.popularity.batch-size:500}") int batchSize
+    ) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.localSearchIndex = localSearchIndex;
+        this.tenantIndexResolver = tenantIndexResolver;
+        this.clickWeight = clickWeight;
+        this.impressionWeight = impressionWeight;
+        this.maxTrackedCourses = maxTrackedCourses;
+        this.batchSize = batchSize;
+    }
+
+    public void record(List<CourseEvent> events) {
+        for (CourseEvent event : events) {
+            record(event.tenantId(), event.courseId(), event.type());
+        }
+    }
+
+    public void record(String courseId, CourseEvent.Type type) {
+        record(null, courseId, type);
+    }
+
+    /**
+     * A course that already has counters is counted with a plain map lookup and a {@link LongAdder} increment; only its
+     * first event since the last flush goes through {@link ConcurrentHashMap#computeIfAbsent}.
+     */
+    public void record(String tenantId, String courseId, CourseEvent.Type type) {
+        if (courseId == null || courseId.isBlank()) {
+            return;
+        }
+        boolean counted = type == CourseEvent.Type.CLICK
+                ? add(new CourseKey(tenantId, courseId), true, c -> c.clicks.increment(), c -> c.clicks.decrement())
+                : add(new CourseKey(tenantId, courseId), true, c -> c.impressions.increment(), c -> c.impressions.decrement());
+        if (!counted) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Applies {@code update} to the course's counters without locking. A flush may retire
+     * idle counters and remove them concurrently; an update that lands on retired counters is
+     * undone and retried on the ones that replace them, so it is counted exactly once.
+     *
+     * @return {@code false} if the course has no counters and {@code bounded} callers are at
+     * max-tracked-courses
+     */
+    private boolean add(CourseKey key, boolean bounded, Consumer<Counters> update, Consumer<Counters> undo) {
+        while (true) {
+            Counters courseCounters = counters.get(key);
+            if (courseCounters == null) {
+                if (bounded && counters.size() >= maxTrackedCourses) {
+                    return false;
+                }
+                courseCounters = counters.computeIfAbsent(key, k -> new Counters());
+            }
+            update.accept(courseCounters);
+            if (!courseCounters.retired) {
+                return true;
+            }
+            undo.accept(courseCounters);
+            Thread.onSpinWait();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.popularity.flush-interval-ms:10000}")
+    public void flush() {
+        Map<CourseKey, Double> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<CourseKey, Double> applied = new HashMap<>();
+        Map<CourseKey, Double> batch = new HashMap<>();
+        Set<String> batchIds = new HashSet<>();
+        for (Map.Entry<CourseKey, Double> entry : deltas.entrySet()) {
+            // Bulk failures are reported by document id, so one id goes at most once per request
+            if (batch.size() == batchSize || !batchIds.add(entry.getKey().courseId())) {
+                sendBatch(batch, applied);
+                batch = new HashMap<>();
+                batchIds.clear();
+                batchIds.add(entry.getKey().courseId());
+            }
+            batch.put(entry.getKey(), entry.getValue());
+        }
+        if (!batch.isEmpty()) {
+            sendBatch(batch, applied);
+        }
+
+        if (localSearchIndex.isEnabled() && !applied.isEmpty()) {
+            localSearchIndex.addPopularity(applied);
+        }
+        logger.info("Flushed popularity for {} of {} courses", applied.size(), deltas.size());
+
+        long droppedEvents = dropped.sumThenReset();
+        if (droppedEvents > 0) {
+            logger.warn("Dropped {} events for untracked courses, max-tracked-courses reached", droppedEvents);
+        }
+    }
+
+    /**
+     * Resets every course's counters and removes the ones that were already empty. Counters
+     * are marked retired before the emptiness check: an event that incremented them first is
+     * seen by the check, and one that increments them after sees the mark and moves to fresh
+     * counters. Counters that turn out not to be empty are put back in service.
+     */
+    private Map<CourseKey, Double> drain() {
+        Map<CourseKey, Double> deltas = new HashMap<>();
+        counters.forEach((key, courseCounters) -> {
+            long clicks = courseCounters.clicks.sumThenReset();
+            long impressions = courseCounters.impressions.sumThenReset();
+            double pending = courseCounters.pending.sumThenReset();
+            if (clicks != 0 || impressions != 0 || pending != 0) {
+                deltas.put(key, clicks * clickWeight + impressions * impressionWeight + pending);
+                return;
+            }
+            courseCounters.retired = true;
+            if (courseCounters.isEmpty()) {
+                counters.remove(key, courseCounters);
+            } else {
+                courseCounters.retired = false;
+            }
+        });
+        return deltas;
+    }
+
+    private void sendBatch(Map<CourseKey, Double> batch, Map<CourseKey, Double> applied) {
+        List<UpdateQuery> updates = new ArrayList<>(batch.size());
+        batch.forEach((key, delta) -> {
+            String tenantId = key.tenantId();
+            UpdateQuery.Builder update = UpdateQuery.builder(key.courseId())
+                    .withScript(INCREMENT_SCRIPT)
+                    .withScriptType(ScriptType.INLINE)
+                    .withLang("painless")
+                    .withParams(Map.of("delta", delta))
+                    .withRetryOnConflict(3);
+            if (tenantId != null) {
+                update.withRouting(tenantId)
+                        .withIndex(tenantIndexResolver.indexFor(tenantId).getIndexName());
+            }
+            updates.add(update.build());
+        });
+
+        try {
+            elasticsearchOperations.bulkUpdate(updates, CourseDocument.class);
+            applied.putAll(batch);
+        } catch (BulkFailureException e) {
+            Map<String, BulkFailureException.FailureDetails> failed = e.getFailedDocuments();
+            List<CourseKey> missing = new ArrayList<>();
+            batch.forEach((key, delta) -> {
+                BulkFailureException.FailureDetails failure = failed.get(key.courseId());
+                if (failure == null) {
+                    applied.put(key, delta);
+                } else if (isNotFound(failure)) {
+                    missing.add(key);
+                } else {
+                    requeue(key, delta);
+                }
+            });
+            if (!missing.isEmpty()) {
+                logger.warn("Dropping popularity updates for courses missing from the index {}", missing);
+            }
+            if (failed.size() > missing.size()) {
+                logger.warn("Popularity update failed for {} courses, keeping their deltas for the next flush",
+                        failed.size() - missing.size());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Popularity flush failed, keeping {} deltas for the next flush", batch.size(), e);
+            batch.forEach(this::requeue);
+        }
+    }
+
+    /**
+     * Only a missing document fails the same way on every retry; version conflicts, rejected
+     * executions and other failures are transient.
+     */
+    private static boolean isNotFound(BulkFailureException.FailureDetails failure) {
+        return failure.status() != null && failure.status() == 404;
+    }
+
+    private void requeue(CourseKey key, double delta) {
+        add(key, false, c -> c.pending.add(delta), c -> c.pending.add(-delta));
+    }
+
+    private static final class Counters {
+        private final LongAdder impressions = new LongAdder();
+        private final LongAdder clicks = new LongAdder();
+        private final DoubleAdder pending = new DoubleAdder();
+        private volatile boolean retired;
+
+        boolean isEmpty() {
+            return clicks.sum() == 0 && impressions.sum() == 0 && pending.sum() == 0;
+        }
+    }
+}
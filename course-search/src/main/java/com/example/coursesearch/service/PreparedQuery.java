@@ -0,0 +1,116 @@
+package com.example.coursesearch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A {@link SearchQuery} lowered into the primitive form scanned by {@link CourseSegment}.
+ */
+record PreparedQuery(
+        String keyword,
+        List<String> keywordWords,
+        String tenantId,
+        String category,
+        String type,
+        boolean hasAgeFilter,
+        int ageFrom,
+        int ageTo,
+        boolean hasPriceFilter,
+        double priceFrom,
+        double priceTo,
+        long startEpochMillis,
+        double originLat,
+        double originLon,
+        double radiusKm,
+        List<String> titlePrefixes,
+        SortMode sortMode
+) {
+
+    enum SortMode {
+        PRICE_ASC,
+        PRICE_DESC,
+        DISTANCE,
+        RELEVANCE,
+        POPULARITY,
+        NEXT_SESSION_DATE;
+
+        static SortMode of(String sort, boolean hasKeyword) {
+            if ("priceAsc".equals(sort)) {
+                return PRICE_ASC;
+            }
+            if ("priceDesc".equals(sort)) {
+                return PRICE_DESC;
+            }
+            if ("distance".equals(sort)) {
+                return DISTANCE;
+            }
+            if ("relevance".equals(sort) && hasKeyword) {
+                return RELEVANCE;
+            }
+            return NEXT_SESSION_DATE;
+        }
+    }
+
+    boolean hasRadius() {
+        return !Double.isNaN(radiusKm);
+    }
+
+    static PreparedQuery of(SearchQuery query) {
+        String keyword = null;
+        List<String> words = List.of();
+        if (query.keyword() != null && !query.keyword().isBlank()) {
+            keyword = query.keyword().trim().toLowerCase(Locale.ROOT);
+            if (keyword.length() > 3) {
+                words = new ArrayList<>();
+                for (String word : keyword.split("\\s+")) {
+                    if (word.length() > 2) {
+                        words.add(word);
+                    }
+                }
+            }
+        }
+
+        return new PreparedQuery(
+                keyword,
+                words,
+                blankToNull(query.tenantId()),
+                blankToNull(query.category()),
+                blankToNull(query.type()),
+                query.minAge() != null || query.maxAge() != null,
+                query.minAge() != null ? query.minAge() : Integer.MIN_VALUE,
+                query.maxAge() != null ? query.maxAge() : Integer.MAX_VALUE,
+                query.minPrice() != null || query.maxPrice() != null,
+                query.minPrice() != null ? query.minPrice() : Double.NEGATIVE_INFINITY,
+                query.maxPrice() != null ? query.maxPrice() : Double.POSITIVE_INFINITY,
+                query.startDate() != null ? query.startDate().toInstant().toEpochMilli() : Long.MIN_VALUE,
+                query.hasLocation() ? query.lat() : Double.NaN,
+                query.hasLocation() ? query.lon() : Double.NaN,
+                query.hasLocation() && query.radiusKm() != null ? query.radiusKm() : Double.NaN,
+                List.of(),
+                SortMode.of(query.sort(), keyword != null)
+        );
+    }
+
+    /**
+     * Instant-search lookup: titles must contain a word starting with every term, most
+     * popular first.
+     *
+     * @param tenantId the tenant whose courses are matched, or {@code null} for every tenant
+     */
+    static PreparedQuery titlePrefix(String tenantId, List<String> terms) {
+        return new PreparedQuery(
+                null, List.of(), blankToNull(tenantId), null, null,
+                false, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                false, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Long.MIN_VALUE,
+                Double.NaN, Double.NaN, Double.NaN,
+                List.copyOf(terms),
+                SortMode.POPULARITY
+        );
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
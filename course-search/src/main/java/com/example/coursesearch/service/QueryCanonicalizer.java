@@ -0,0 +1,157 @@
+package com.example.coursesearch.service;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rewrites a {@link SearchQuery} into the one form shared by every request that means the
+ * same thing, and derives a compact key from it for caching, coalescing and logging.
+ *
+ * <ul>
+ *     <li>keyword: NFKC-normalized, case-folded, whitespace collapsed, stopwords removed
+ *     (unless nothing else is left)</li>
+ *     <li>price bounds: rounded inward to whole cents, which matches the same courses as long as
+ *     prices are whole cents; origin and radius are kept exact, since any rounding of a
+ *     distance bound moves courses in or out of it</li>
+ *     <li>start date: moved to UTC</li>
+ *     <li>dropped: blank strings, an origin that neither a radius nor the distance sort uses,
+ *     and {@code relevance} without a keyword, which sorts by {@code nextSessionDate}</li>
+ * </ul>
+ */
+@Component
+public class QueryCanonicalizer {
+
+    static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "of", "on", "or", "the", "to", "with");
+
+    private static final int KEY_BYTES = 12;
+
+    public CanonicalQuery canonicalize(SearchQuery query) {
+        String keyword = normalizeKeyword(query.keyword());
+        String sort = query.sort() == null ? SearchQuery.DEFAULT_SORT : query.sort();
+        if ("relevance".equals(sort) && keyword == null) {
+            sort = SearchQuery.DEFAULT_SORT;
+        }
+        boolean originUsed = query.hasLocation() && (query.radiusKm() != null || "distance".equals(sort));
+
+        SearchQuery canonical = query.toBuilder()
+                .tenantId(blankToNull(query.tenantId()))
+                .keyword(keyword)
+                .category(blankToNull(query.category()))
+                .type(blankToNull(query.type()))
+                .minAge(positive(query.minAge()))
+                .minPrice(positive(scale(query.minPrice(), 2, RoundingMode.CEILING)))
+                .maxPrice(scale(query.maxPrice(), 2, RoundingMode.FLOOR))
+                .startDate(query.startDate() == null ? null : query.startDate().withZoneSameInstant(ZoneOffset.UTC))
+                .lat(originUsed ? query.lat() : null)
+                .lon(originUsed ? query.lon() : null)
+                .radiusKm(originUsed ? query.radiusKm() : null)
+                .sort(sort)
+                .build();
+        return new CanonicalQuery(canonical, key(canonical));
+    }
+
+    /**
+     * @return the normalized keyword, or {@code null} if nothing searchable is left
+     */
+    static String normalizeKeyword(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String folded = fold(keyword).trim();
+        if (folded.isEmpty()) {
+            return null;
+        }
+
+        List<String> words = Arrays.asList(folded.split("\\s+"));
+        List<String> kept = new ArrayList<>(words.size());
+        for (String word : words) {
+            if (!STOPWORDS.contains(word)) {
+                kept.add(word);
+            }
+        }
+        return String.join(" ", kept.isEmpty() ? words : kept);
+    }
+
+    /**
+     * Unicode compatibility normalization followed by case folding ("ß" and "SS" both become "ss").
+     */
+    static String fold(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toUpperCase(Locale.ROOT)
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(SearchQuery query) {
+        String canonical = String.join("|",
+                "t=" + valueOf(query.tenantId()),
+                "q=" + valueOf(query.keyword()),
+                "c=" + valueOf(query.category()),
+                "ty=" + valueOf(query.type()),
+                "a=" + valueOf(query.minAge()) + "," + valueOf(query.maxAge()),
+                "p=" + valueOf(query.minPrice()) + "," + valueOf(query.maxPrice()),
+                "d=" + (query.startDate() == null ? "" : query.startDate().toInstant().toString()),
+                "g=" + valueOf(query.lat()) + "," + valueOf(query.lon()) + "," + valueOf(query.radiusKm()),
+                "s=" + query.sort(),
+                "pg=" + query.page() + "," + query.size());
+        return digest(canonical);
+    }
+
+    /**
+     * Key of an autocomplete request; the prefix is matched as given apart from surrounding
+     * whitespace, so only that is normalized.
+     *
+     * @param tenantId the tenant the suggestions are scoped to, or {@code null} for all of them
+     */
+    public String suggestKey(String tenantId, String partialTitle) {
+        return digest("suggest|" + (tenantId == null ? "" : tenantId) + "|"
+                + (partialTitle == null ? "" : partialTitle.trim()));
+    }
+
+    private static String digest(String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, KEY_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Double scale(Double value, int decimals, RoundingMode mode) {
+        if (value == null) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(decimals, mode).doubleValue();
+    }
+
+    private static Integer positive(Integer value) {
+        return value == null || value <= 0 ? null : value;
+    }
+
+    private static Double positive(Double value) {
+        return value == null || value <= 0 ? null : value;
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
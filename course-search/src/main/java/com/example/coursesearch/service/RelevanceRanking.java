@@ -0,0 +1,89 @@
+package com.example.coursesearch.service;
+
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.query.RescorerQuery;
+import org.springframework.stereotype.Component;
+
+/**
+ * Function-score model behind {@code sort=relevance}: the text score of the top
+ * {@code window-size} hits is multiplied by
+ * {@code 1 + recencyWeight * gauss(nextSessionDate) + popularityWeight * ln(1 + popularity)}.
+ * Hits outside the window keep their text order.
+ */
+@Component
+public class RelevanceRanking {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final int windowSize;
+    private final int recencyScaleDays;
+    private final double recencyDecay;
+    private final double recencyWeight;
+    private final double popularityWeight;
+
+    public RelevanceRanking(
+            @Value("${search.relevance.window-size:100}") int windowSize,
+            @Value("${search.relevance.recency-scale-days:30}") int recencyScaleDays,
+            @Value("${search.relevance.recency-decay:0.5}") double recencyDecay,
+            @Value("${search.relevance.recency-weight:1.0}") double recencyWeight,
+            @Value("${search.relevance.popularity-weight:0.5}") double popularityWeight
+    ) {
+        if (windowSize < 1 || recencyScaleDays < 1 || recencyDecay <= 0 || recencyDecay >= 1
+                || recencyWeight < 0 || popularityWeight < 0) {
+            throw new IllegalArgumentException("Invalid search.relevance settings");
+        }
+        this.windowSize = windowSize;
+        this.recencyScaleDays = recencyScaleDays;
+        this.recencyDecay = recencyDecay;
+        this.recencyWeight = recencyWeight;
+        this.popularityWeight = popularityWeight;
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    public RescorerQuery rescorer() {
+        NativeQuery functionScore = NativeQuery.builder()
+                .withQuery(q -> q.functionScore(fs -> fs
+                        .functions(f -> f.weight(1.0))
+                        .functions(f -> f
+                                .weight(recencyWeight)
+                                .gauss(g -> g.date(d -> d
+                                        .field("nextSessionDate")
+                                        .placement(p -> p
+                                                .origin("now")
+                                                .scale(Time.of(t -> t.time(recencyScaleDays + "d")))
+                                                .decay(recencyDecay)))))
+                        .functions(f -> f
+                                .weight(popularityWeight)
+                                .fieldValueFactor(v -> v
+                                        .field("popularity")
+                                        .modifier(FieldValueFactorModifier.Ln1p)
+                                        .missing(0.0)))
+                        .scoreMode(FunctionScoreMode.Sum)
+                        .boostMode(FunctionBoostMode.Replace)))
+                .build();
+
+        return new RescorerQuery(functionScore)
+                .withWindowSize(windowSize)
+                .withScoreMode(RescorerQuery.ScoreMode.Multiply);
+    }
+
+    /**
+     * Same function as {@link #rescorer()}, evaluated in-process for the local backend.
+     */
+    public double boost(long sessionEpochMillis, double popularity, long nowEpochMillis) {
+        double recency = 1.0;
+        if (sessionEpochMillis != CourseSegment.NULL_KEY) {
+            double distance = Math.abs(sessionEpochMillis - nowEpochMillis) / (double) (recencyScaleDays * MILLIS_PER_DAY);
+            recency = Math.exp(Math.log(recencyDecay) * distance * distance);
+        }
+        return 1.0 + recencyWeight * recency + popularityWeight * Math.log1p(Math.max(0.0, popularity));
+    }
+}
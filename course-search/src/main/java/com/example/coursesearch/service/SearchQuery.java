@@ -0,0 +1,41 @@
+package com.example.coursesearch.service;
+
+import lombok.Builder;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A course search. The constants are the request parameter rules shared by
+ * {@code SearchController}, {@link SearchQueryParams} and {@link SearchService}; they are
+ * strings where bean validation and {@code @RequestParam} annotations need constants.
+ */
+@Builder(toBuilder = true)
+public record SearchQuery(
+        String tenantId,
+        String keyword,
+        Integer minAge,
+        Integer maxAge,
+        String category,
+        String type,
+        Double minPrice,
+        Double maxPrice,
+        ZonedDateTime startDate,
+        Double lat,
+        Double lon,
+        Double radiusKm,
+        String sort,
+        int page,
+        int size
+) {
+
+    public static final String SORTS = "priceAsc|priceDesc|nextSessionDate|distance|relevance";
+    public static final String DEFAULT_SORT = "nextSessionDate";
+    public static final String TENANT_ID = "[a-z0-9][a-z0-9_-]{0,63}";
+    public static final String DEFAULT_PAGE = "0";
+    public static final String DEFAULT_SIZE = "10";
+    public static final int MAX_SIZE = 100;
+
+    public boolean hasLocation() {
+        return lat != null && lon != null;
+    }
+}
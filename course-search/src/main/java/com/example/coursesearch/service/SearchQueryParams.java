@@ -0,0 +1,99 @@
+package com.example.coursesearch.service;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Maps {@code /api/search} request parameters onto a {@link SearchQuery} with the defaults
+ * and bounds {@code SearchController} declares through the {@link SearchQuery} constants,
+ * for code that sees a request before the controller does.
+ */
+public final class SearchQueryParams {
+
+    private static final Pattern SORTS = Pattern.compile(SearchQuery.SORTS);
+    private static final Pattern TENANT = Pattern.compile(SearchQuery.TENANT_ID);
+
+    private SearchQueryParams() {
+    }
+
+    /**
+     * @return the query, or {@code null} when a parameter is repeated, malformed or out of
+     * range; the controller then produces the proper error
+     */
+    public static SearchQuery parse(Map<String, String[]> params) {
+        try {
+            String sort = value(params, "sort", SearchQuery.DEFAULT_SORT);
+            String tenant = value(params, "tenant", null);
+            int page = Integer.parseInt(value(params, "page", SearchQuery.DEFAULT_PAGE));
+            int size = Integer.parseInt(value(params, "size", SearchQuery.DEFAULT_SIZE));
+            if (!SORTS.matcher(sort).matches() || (tenant != null && !TENANT.matcher(tenant).matches())
+                    || page < 0 || size < 1 || size > SearchQuery.MAX_SIZE) {
+                return null;
+            }
+            String startDate = value(params, "startDate", null);
+            return SearchQuery.builder()
+                    .tenantId(tenant)
+                    .keyword(value(params, "q", null))
+                    .minAge(integer(value(params, "minAge", null)))
+                    .maxAge(integer(value(params, "maxAge", null)))
+                    .category(value(params, "category", null))
+                    .type(value(params, "type", null))
+                    .minPrice(decimal(value(params, "minPrice", null)))
+                    .maxPrice(decimal(value(params, "maxPrice", null)))
+                    .startDate(startDate == null ? null : ZonedDateTime.parse(startDate, DateTimeFormatter.ISO_DATE_TIME))
+                    .lat(decimal(value(params, "lat", null)))
+                    .lon(decimal(value(params, "lon", null)))
+                    .radiusKm(decimal(value(params, "radius", null)))
+                    .sort(sort)
+                    .page(page)
+                    .size(size)
+                    .build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a URL query string such as {@code category=Math&sort=priceAsc}.
+     */
+    public static SearchQuery parse(String queryString) {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (params.putIfAbsent(name, new String[]{value}) != null) {
+                return null;
+            }
+        }
+        return parse(params);
+    }
+
+    private static String value(Map<String, String[]> params, String name, String defaultValue) {
+        String[] values = params.get(name);
+        if (values == null || values.length == 0) {
+            return defaultValue;
+        }
+        if (values.length > 1) {
+            throw new IllegalArgumentException("Repeated parameter " + name);
+        }
+        return values[0].isEmpty() ? defaultValue : values[0];
+    }
+
+    private static Integer integer(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static Double decimal(String value) {
+        return value == null ? null : Double.valueOf(value);
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.coursesearch.service;
 
-import com.example.coursesearch.document.CourseDocument;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
 
-@Data
-@AllArgsConstructor
-public class SearchResult {
-    private long total;
-    private List<CourseDocument> courses;
+/**
+ * @param suggestedQuery corrected keyword for zero- or low-hit searches. When the search was
+ *                       re-run with it, {@code total} and {@code courses} are the results of
+ *                       the corrected keyword.
+ */
+public record SearchResult(
+        long total,
+        List<CourseHit> courses,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String suggestedQuery
+) {
+
+    public SearchResult(long total, List<CourseHit> courses) {
+        this(total, courses, null);
+    }
+
+    public SearchResult withSuggestedQuery(String suggestedQuery) {
+        return new SearchResult(total, courses, suggestedQuery);
+    }
 }
@@ -0,0 +1,40 @@
+package com.example.coursesearch.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Search results by index generation and canonical query key. Entries of older generations
+ * are never read again and age out. Concurrent misses for the same key wait for a single
+ * backend call instead of each issuing their own.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<String, SearchResult> cache;
+
+    public SearchResultCache(
+            @Value("${search.cache.max-size:10000}") long maxSize,
+            @Value("${search.cache.ttl-seconds:30}") long ttlSeconds
+    ) {
+        if (maxSize < 0 || ttlSeconds < 1) {
+            throw new IllegalArgumentException("Invalid search.cache settings");
+        }
+        this.cache = maxSize == 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public SearchResult get(long generation, String key, Supplier<SearchResult> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return cache.get(generation + ":" + key, ignored -> loader.get());
+    }
+}
@@ -6,9 +6,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.core.*;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
-import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.GeoDistanceOrder;
 
 
 import org.springframework.stereotype.Service;
@@ -16,15 +18,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
     private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+    private static final Pattern SORTS = Pattern.compile(SearchQuery.SORTS);
 
     private final ElasticsearchOperations elasticsearchOperations;
+    private final LocalSearchIndex localSearchIndex;
+    private final RelevanceRanking relevanceRanking;
+    private final TenantIndexResolver tenantIndexResolver;
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final SearchResultCache searchResultCache;
+    private final IndexGeneration indexGeneration;
+    private final SpellingDictionary spellingDictionary;
+    private final HedgedSearchExecutor hedgedSearchExecutor;
+    private final WarmSet warmSet;
 
     public SearchResult search(
             String keyword,
@@ -39,25 +53,164 @@ public class SearchService {
             int page,
             int size
     ) {
-        logger.info("SearchService called");
+        return search(SearchQuery.builder()
+                .keyword(keyword)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .category(category)
+                .type(type)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .startDate(startDate)
+                .sort(sort)
+                .page(page)
+                .size(size)
+                .build());
+    }
+
+    public SearchResult search(SearchQuery searchQuery) {
+        CanonicalQuery canonical = canonicalize(searchQuery);
+        logger.info("SearchService called, query {}", canonical.key());
+        warmSet.record(canonical);
+        WarmPage warm = warmSet.find(canonical.key());
+        if (warm != null) {
+            return warm.result();
+        }
+        return load(canonical);
+    }
+
+    /**
+     * Validates a query and rewrites it into canonical form.
+     *
+     * @throws IllegalArgumentException if the query is invalid
+     */
+    public CanonicalQuery canonicalize(SearchQuery searchQuery) {
+        validateSearchParameters(searchQuery.minAge(), searchQuery.maxAge(),
+                searchQuery.minPrice(), searchQuery.maxPrice(), searchQuery.sort());
+        validatePage(searchQuery.page(), searchQuery.size());
+        validateGeoParameters(searchQuery);
+        return queryCanonicalizer.canonicalize(searchQuery);
+    }
+
+    /**
+     * Searches through the result cache without consulting or feeding the warm set; this is
+     * how the warm set builds its pages.
+     */
+    public SearchResult load(SearchQuery searchQuery) {
+        return load(canonicalize(searchQuery));
+    }
 
-        validateSearchParameters(minAge, maxAge, minPrice, maxPrice, sort);
+    /**
+     * Runs a query against the backend without the result cache or the warm set, so the
+     * caller measures what a cache miss costs and does not count as traffic for the warm set.
+     */
+    public SearchResult searchUncached(SearchQuery searchQuery) {
+        return executeWithSpelling(canonicalize(searchQuery).query());
+    }
+
+    private SearchResult load(CanonicalQuery canonical) {
+        return searchResultCache.get(indexGeneration.current(), canonical.key(), () -> executeWithSpelling(canonical.query()));
+    }
+
+    /**
+     * Attaches a "did you mean" keyword to zero- or low-hit results and, when the dictionary
+     * is confident enough, returns the results of the corrected keyword instead.
+     */
+    private SearchResult executeWithSpelling(SearchQuery searchQuery) {
+        SearchResult result = execute(searchQuery);
+        if (searchQuery.keyword() == null || result == null || !spellingDictionary.shouldSuggest(result.total())) {
+            return result;
+        }
+        SpellingDictionary.Suggestion suggestion = spellingDictionary.suggest(searchQuery.tenantId(), searchQuery.keyword());
+        if (suggestion == null) {
+            return result;
+        }
+        logger.info("Suggesting \"{}\" for \"{}\" (confidence {})", suggestion.query(), searchQuery.keyword(),
+                suggestion.confidence());
+        if (spellingDictionary.shouldRerun(suggestion)) {
+            SearchResult corrected = execute(searchQuery.toBuilder().keyword(suggestion.query()).build());
+            if (corrected != null && corrected.total() > result.total()) {
+                result = corrected;
+            }
+        }
+        return result.withSuggestedQuery(suggestion.query());
+    }
+
+    private SearchResult execute(SearchQuery searchQuery) {
+        if (localSearchIndex.isEnabled()) {
+            return localSearchIndex.search(searchQuery);
+        }
+
+        IndexCoordinates index = tenantIndexResolver.searchIndex(searchQuery.tenantId());
+        SearchHits<CourseHit> hits;
+        if (hedgedSearchExecutor.isEnabled()) {
+            // Equal queries keep to the same shard copies, which keeps their caches warm
+            String affinity = Integer.toHexString(searchQuery.hashCode());
+            hits = hedgedSearchExecutor.execute(affinity, preference -> {
+                CriteriaQuery query = buildQuery(searchQuery);
+                query.setPreference(preference);
+                return searchHits(query, index);
+            });
+        } else {
+            hits = searchHits(buildQuery(searchQuery), index);
+        }
+
+        List<CourseHit> courses = new ArrayList<>(hits.getSearchHits().size());
+        for (SearchHit<CourseHit> hit : hits.getSearchHits()) {
+            courses.add(hit.getContent());
+        }
+        return new SearchResult(hits.getTotalHits(), courses);
+    }
+
+    /**
+     * Maps the query against {@link CourseDocument}, where the field types and date format
+     * are declared, and reads the hits from their source straight into records through
+     * {@link CourseHitReader}.
+     */
+    private SearchHits<CourseHit> searchHits(CriteriaQuery query, IndexCoordinates index) {
+        elasticsearchOperations.getElasticsearchConverter().updateQuery(query, CourseDocument.class);
+        return elasticsearchOperations.search(query, CourseHit.class, index);
+    }
+
+    private CriteriaQuery buildQuery(SearchQuery searchQuery) {
+        String keyword = searchQuery.keyword();
+        Integer minAge = searchQuery.minAge();
+        Integer maxAge = searchQuery.maxAge();
+        String category = searchQuery.category();
+        String type = searchQuery.type();
+        Double minPrice = searchQuery.minPrice();
+        Double maxPrice = searchQuery.maxPrice();
+        ZonedDateTime startDate = searchQuery.startDate();
+        String sort = searchQuery.sort();
+        String tenantId = searchQuery.tenantId();
 
         Criteria criteria = new Criteria();
 
-        if (keyword != null && !keyword.isBlank()) {
-            String trimmedKeyword = keyword.trim();
-            
-            Criteria textCriteria = new Criteria()
-                    .or(new Criteria("title").contains(trimmedKeyword))
-                    .or(new Criteria("description").contains(trimmedKeyword));
-            
-            textCriteria = textCriteria
-                    .or(new Criteria("title").contains(trimmedKeyword.toLowerCase()))
-                    .or(new Criteria("title").contains(trimmedKeyword.toUpperCase()));
+        if (tenantId != null) {
+            criteria = criteria.and(new Criteria("tenantId").is(tenantId));
+        }
+
+        if (keyword != null) {
+            Criteria textCriteria;
+            if (keyword.indexOf(' ') < 0) {
+                textCriteria = new Criteria()
+                        .or(new Criteria("title").contains(keyword))
+                        .or(new Criteria("description").contains(keyword));
+            } else {
+                // wildcard queries cannot span words; require every word instead
+                textCriteria = new Criteria()
+                        .or(new Criteria("title").matchesAll(keyword))
+                        .or(new Criteria("description").matchesAll(keyword));
+            }
+
+            if ("relevance".equals(sort)) {
+                textCriteria = textCriteria
+                        .or(new Criteria("title").matches(keyword).boost(2.0f))
+                        .or(new Criteria("description").matches(keyword));
+            }
             
-            if (trimmedKeyword.length() > 3) {
-                String[] words = trimmedKeyword.split("\\s+");
+            if (keyword.length() > 3) {
+                String[] words = keyword.split("\\s+");
                 for (String word : words) {
                     if (word.length() > 2) {
                         textCriteria = textCriteria.or(new Criteria("title").contains(word));
@@ -94,27 +247,39 @@ public class SearchService {
             criteria = criteria.and(new Criteria("nextSessionDate").greaterThanEqual(startDate));
         }
 
-        Pageable pageable = PageRequest.of(page, size);
-        Query query = new CriteriaQuery(criteria, pageable);
+        GeoPoint origin = searchQuery.hasLocation() ? new GeoPoint(searchQuery.lat(), searchQuery.lon()) : null;
+        if (origin != null && searchQuery.radiusKm() != null) {
+            criteria = criteria.and(new Criteria("location").within(origin, searchQuery.radiusKm() + "km"));
+        }
+
+        Pageable pageable = PageRequest.of(searchQuery.page(), searchQuery.size());
+        CriteriaQuery query = new CriteriaQuery(criteria, pageable);
+        if (tenantId != null) {
+            query.setRoute(tenantId);
+        }
 
         if ("priceAsc".equals(sort)) {
             query.addSort(Sort.by(Sort.Direction.ASC, "price"));
         } else if ("priceDesc".equals(sort)) {
             query.addSort(Sort.by(Sort.Direction.DESC, "price"));
+        } else if ("distance".equals(sort)) {
+            query.addSort(Sort.by(new GeoDistanceOrder("location", origin).withUnit("km")));
+        } else if ("relevance".equals(sort)) {
+            query.addRescorerQuery(relevanceRanking.rescorer());
         } else {
             query.addSort(Sort.by(Sort.Direction.ASC, "nextSessionDate"));
         }
-
-        SearchHits<CourseDocument> hits = elasticsearchOperations.search(query, CourseDocument.class);
-
-        List<CourseDocument> courses = hits.stream()
-                .map(SearchHit::getContent)
-                .toList();
-
-        return new SearchResult(hits.getTotalHits(), courses);
+        return query;
     }
 
     public SuggestResult suggest(String partialTitle) {
+        return suggest(null, partialTitle);
+    }
+
+    /**
+     * @param tenantId the tenant whose titles are suggested, or {@code null} for every tenant
+     */
+    public SuggestResult suggest(String tenantId, String partialTitle) {
         logger.info("Suggest called with partial title: {}", partialTitle);
 
         if (partialTitle == null || partialTitle.trim().isEmpty()) {
@@ -123,13 +288,19 @@ public class SearchService {
 
 
         Criteria criteria = new Criteria("title").startsWith(partialTitle.trim());
+        if (tenantId != null) {
+            criteria = criteria.and(new Criteria("tenantId").is(tenantId));
+        }
         Pageable pageable = PageRequest.of(0, 10);
-        Query query = new CriteriaQuery(criteria, pageable);
+        CriteriaQuery query = new CriteriaQuery(criteria, pageable);
+        if (tenantId != null) {
+            query.setRoute(tenantId);
+        }
 
-        SearchHits<CourseDocument> hits = elasticsearchOperations.search(query, CourseDocument.class);
+        SearchHits<CourseHit> hits = searchHits(query, tenantIndexResolver.searchIndex(tenantId));
 
         List<String> suggestions = hits.stream()
-                .map(hit -> hit.getContent().getTitle())
+                .map(hit -> hit.getContent().title())
                 .distinct()
                 .collect(Collectors.toList());
 
@@ -157,8 +328,43 @@ public class SearchService {
             throw new IllegalArgumentException("maxPrice cannot be negative");
         }
 
-        if (sort != null && !sort.matches("^(priceAsc|priceDesc|nextSessionDate)$")) {
-            throw new IllegalArgumentException("Invalid sort parameter. Must be one of: priceAsc, priceDesc, nextSessionDate");
+        if (sort != null && !SORTS.matcher(sort).matches()) {
+            throw new IllegalArgumentException("Invalid sort parameter. Must be one of: " + SearchQuery.SORTS.replace("|", ", "));
+        }
+    }
+
+    private void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page cannot be negative");
+        }
+        if (size < 1 || size > SearchQuery.MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + SearchQuery.MAX_SIZE);
+        }
+    }
+
+    private void validateGeoParameters(SearchQuery searchQuery) {
+        Double lat = searchQuery.lat();
+        Double lon = searchQuery.lon();
+
+        if ((lat == null) != (lon == null)) {
+            throw new IllegalArgumentException("lat and lon must be provided together");
+        }
+        if (lat != null && (lat < -90 || lat > 90)) {
+            throw new IllegalArgumentException("lat must be between -90 and 90");
+        }
+        if (lon != null && (lon < -180 || lon > 180)) {
+            throw new IllegalArgumentException("lon must be between -180 and 180");
+        }
+        if (searchQuery.radiusKm() != null) {
+            if (lat == null) {
+                throw new IllegalArgumentException("radius requires lat and lon");
+            }
+            if (searchQuery.radiusKm() <= 0) {
+                throw new IllegalArgumentException("radius must be positive");
+            }
+        }
+        if ("distance".equals(searchQuery.sort()) && lat == null) {
+            throw new IllegalArgumentException("distance sort requires lat and lon");
         }
     }
 }
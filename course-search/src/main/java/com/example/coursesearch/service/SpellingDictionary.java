@@ -0,0 +1,318 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Did you mean" over the catalog vocabulary. Terms from titles and descriptions are
+ * counted at indexing time and indexed by their character trigrams; a misspelled word
+ * looks up the terms sharing enough trigrams with it, keeps those within a small edit
+ * distance, and ranks them by {@code ln(1 + frequency) - DISTANCE_PENALTY * distance}.
+ * <p>
+ * Every tenant has a vocabulary of its own, used for searches scoped to it, next to the
+ * vocabulary of the whole catalog. Adding courses only bumps term counts; the trigram
+ * snapshots that suggestions read are rebuilt by {@link #rebuild} at most every
+ * {@code search.spelling.rebuild-interval-ms}, off the write path.
+ */
+@Component
+public class SpellingDictionary {
+
+    static final double DISTANCE_PENALTY = 2.0;
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private final boolean autoRerun;
+    private final double autoRerunConfidence;
+    private final long maxHits;
+
+    private static final String ALL_TENANTS = "";
+
+    private volatile Map<String, Vocabulary> vocabularies = new ConcurrentHashMap<>();
+
+    public SpellingDictionary(
+            @Value("${search.spelling.auto-rerun:false}") boolean autoRerun,
+            @Value("${search.spelling.auto-rerun-confidence:0.8}") double autoRerunConfidence,
+            @Value("${search.spelling.max-hits:0}") long maxHits
+    ) {
+        if (autoRerunConfidence < 0 || autoRerunConfidence > 1 || maxHits < 0) {
+            throw new IllegalArgumentException("Invalid search.spelling settings");
+        }
+        this.autoRerun = autoRerun;
+        this.autoRerunConfidence = autoRerunConfidence;
+        this.maxHits = maxHits;
+    }
+
+    /**
+     * A corrected keyword and how sure the dictionary is of it, between 0 and 1.
+     */
+    public record Suggestion(String query, double confidence) {
+    }
+
+    /**
+     * Replaces the vocabulary with the terms of the given courses, ready to suggest from on
+     * return.
+     */
+    public void load(Collection<CourseDocument> courses) {
+        vocabularies = new ConcurrentHashMap<>();
+        add(courses);
+        rebuild();
+    }
+
+    /**
+     * Adds the terms of new or updated courses; suggestions see them after the next
+     * {@link #rebuild}. Counts are never decremented, so the vocabulary of deleted courses
+     * lingers until the next {@link #load}.
+     */
+    public void add(Collection<CourseDocument> courses) {
+        Map<String, Vocabulary> current = vocabularies;
+        Vocabulary all = current.computeIfAbsent(ALL_TENANTS, tenant -> new Vocabulary());
+        for (CourseDocument course : courses) {
+            List<String> terms = new ArrayList<>();
+            collectTerms(course.getTitle(), terms);
+            collectTerms(course.getDescription(), terms);
+            all.count(terms);
+            if (course.getTenantId() != null) {
+                current.computeIfAbsent(course.getTenantId(), tenant -> new Vocabulary()).count(terms);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot of every vocabulary that gained terms since its last rebuild.
+     */
+    @Scheduled(fixedDelayString = "${search.spelling.rebuild-interval-ms:1000}")
+    public void rebuild() {
+        vocabularies.values().forEach(Vocabulary::rebuild);
+    }
+
+    public boolean shouldSuggest(long total) {
+        return total <= maxHits;
+    }
+
+    public boolean shouldRerun(Suggestion suggestion) {
+        return autoRerun && suggestion.confidence() >= autoRerunConfidence;
+    }
+
+    public Suggestion suggest(String keyword) {
+        return suggest(null, keyword);
+    }
+
+    /**
+     * @param tenantId the tenant whose vocabulary is used, or {@code null} for the whole catalog's
+     * @param keyword a canonical keyword (see {@link QueryCanonicalizer})
+     * @return the corrected keyword, or {@code null} if every word is known or some unknown
+     * word has no close enough term
+     */
+    public Suggestion suggest(String tenantId, String keyword) {
+        Vocabulary vocabulary = vocabularies.get(tenantId == null ? ALL_TENANTS : tenantId);
+        if (keyword == null || vocabulary == null) {
+            return null;
+        }
+        Snapshot current = vocabulary.snapshot;
+        String[] words = keyword.split(" ");
+        boolean corrected = false;
+        double confidence = 1.0;
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            if (word.length() < MIN_WORD_LENGTH || current.frequency(word) > 0 || !isWord(word)) {
+                continue;
+            }
+            Correction correction = current.correct(word);
+            if (correction == null) {
+                return null;
+            }
+            words[i] = correction.term();
+            confidence = Math.min(confidence, correction.confidence());
+            corrected = true;
+        }
+        return corrected ? new Suggestion(String.join(" ", words), confidence) : null;
+    }
+
+    private static void collectTerms(String text, List<String> terms) {
+        if (text == null) {
+            return;
+        }
+        for (String term : QueryCanonicalizer.fold(text).split("[^\\p{L}\\p{N}]+")) {
+            if (term.length() >= MIN_WORD_LENGTH && !QueryCanonicalizer.STOPWORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+    }
+
+    private static boolean isWord(String word) {
+        return word.codePoints().allMatch(Character::isLetterOrDigit);
+    }
+
+    private record Correction(String term, double confidence) {
+    }
+
+    /**
+     * Term counts that writers bump without a lock, and the snapshot last built from them.
+     */
+    private static final class Vocabulary {
+        private final Map<String, Integer> frequencies = new ConcurrentHashMap<>();
+        private volatile boolean dirty;
+        private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+        void count(List<String> terms) {
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            dirty = true;
+        }
+
+        /**
+         * Terms counted while the snapshot is built mark it dirty again and make the next
+         * rebuild.
+         */
+        synchronized void rebuild() {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            snapshot = Snapshot.of(frequencies);
+        }
+    }
+
+    private record Snapshot(String[] terms, int[] termFrequencies, Map<String, Integer> ids,
+                            Map<String, int[]> postings) {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new int[0], Map.of(), Map.of());
+
+        /**
+         * Sizes every posting list in a first pass and fills it in a second, so postings are
+         * built as {@code int[]} without boxing.
+         */
+        static Snapshot of(Map<String, Integer> frequencies) {
+            String[] terms = frequencies.keySet().toArray(new String[0]);
+            int[] termFrequencies = new int[terms.length];
+            Map<String, Integer> ids = new HashMap<>(terms.length * 2);
+            Map<String, int[]> cursors = new HashMap<>();
+            for (int id = 0; id < terms.length; id++) {
+                termFrequencies[id] = frequencies.get(terms[id]);
+                ids.put(terms[id], id);
+                for (String trigram : trigrams(terms[id])) {
+                    cursors.computeIfAbsent(trigram, t -> new int[1])[0]++;
+                }
+            }
+            Map<String, int[]> postings = new HashMap<>(cursors.size() * 2);
+            cursors.forEach((trigram, cursor) -> {
+                postings.put(trigram, new int[cursor[0]]);
+                cursor[0] = 0;
+            });
+            for (int id = 0; id < terms.length; id++) {
+                for (String trigram : trigrams(terms[id])) {
+                    postings.get(trigram)[cursors.get(trigram)[0]++] = id;
+                }
+            }
+            return new Snapshot(terms, termFrequencies, ids, postings);
+        }
+
+        int frequency(String term) {
+            Integer id = ids.get(term);
+            return id == null ? 0 : termFrequencies[id];
+        }
+
+        /**
+         * Candidates come from the trigram postings: a substitution, insertion or deletion
+         * changes at most three of the padded trigrams and a transposition at most four, so a
+         * term within {@code maxEdits} shares at least {@code trigrams - 4 * maxEdits} of them.
+         */
+        Correction correct(String word) {
+            int maxEdits = word.length() <= 4 ? 1 : 2;
+            List<String> wordTrigrams = trigrams(word);
+            Map<Integer, Integer> overlap = new HashMap<>();
+            for (String trigram : wordTrigrams) {
+                int[] posting = postings.get(trigram);
+                if (posting != null) {
+                    for (int id : posting) {
+                        overlap.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+
+            int minOverlap = Math.max(1, wordTrigrams.size() - 4 * maxEdits);
+            String best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            int bestDistance = 0;
+            double totalWeight = 0;
+            for (Map.Entry<Integer, Integer> entry : overlap.entrySet()) {
+                String term = terms[entry.getKey()];
+                if (entry.getValue() < minOverlap || Math.abs(term.length() - word.length()) > maxEdits) {
+                    continue;
+                }
+                int distance = editDistance(word, term, maxEdits);
+                if (distance > maxEdits) {
+                    continue;
+                }
+                double score = Math.log1p(termFrequencies[entry.getKey()]) - DISTANCE_PENALTY * distance;
+                totalWeight += Math.exp(score);
+                if (score > bestScore || (score == bestScore && term.compareTo(best) < 0)) {
+                    best = term;
+                    bestScore = score;
+                    bestDistance = distance;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            double share = Math.exp(bestScore) / totalWeight;
+            return new Correction(best, bestDistance == 1 ? share : share / 2);
+        }
+
+        /**
+         * Padded with two markers on each side, so even a short word keeps trigrams that
+         * anchor its first and last letter when an edit scrambles its middle.
+         */
+        private static List<String> trigrams(String term) {
+            String padded = "$$" + term + "$$";
+            List<String> trigrams = new ArrayList<>(padded.length() - 2);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+            return trigrams;
+        }
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), giving up
+     * with {@code maxEdits + 1} once every cell of a row exceeds the bound.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        int[] beforePrevious = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.coursesearch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which index holds a tenant's courses. Most tenants share the {@code courses}
+ * index and are kept on a single shard by routing on {@code tenantId}; tenants listed in
+ * {@code search.tenants.dedicated} get their own {@code courses-<tenant>} index.
+ */
+@Component
+public class TenantIndexResolver {
+
+    public static final String SHARED_INDEX = "courses";
+
+    private static final Pattern TENANT_ID = Pattern.compile(SearchQuery.TENANT_ID);
+
+    private final Set<String> dedicatedTenants;
+    private final IndexCoordinates allIndices;
+
+    public TenantIndexResolver(@Value("${search.tenants.dedicated:}") List<String> dedicatedTenants) {
+        Set<String> tenants = new LinkedHashSet<>();
+        for (String tenant : dedicatedTenants) {
+            if (!tenant.isBlank()) {
+                tenants.add(validate(tenant.trim().toLowerCase(Locale.ROOT)));
+            }
+        }
+        this.dedicatedTenants = Set.copyOf(tenants);
+
+        List<String> names = new ArrayList<>();
+        names.add(SHARED_INDEX);
+        tenants.forEach(tenant -> names.add(dedicatedIndexName(tenant)));
+        this.allIndices = IndexCoordinates.of(names.toArray(new String[0]));
+    }
+
+    public Set<String> dedicatedTenants() {
+        return dedicatedTenants;
+    }
+
+    public boolean isDedicated(String tenantId) {
+        return tenantId != null && dedicatedTenants.contains(tenantId);
+    }
+
+    /**
+     * @return the index a tenant's courses are written to; the shared index for courses without a tenant
+     */
+    public IndexCoordinates indexFor(String tenantId) {
+        if (tenantId == null) {
+            return IndexCoordinates.of(SHARED_INDEX);
+        }
+        validate(tenantId);
+        return IndexCoordinates.of(isDedicated(tenantId) ? dedicatedIndexName(tenantId) : SHARED_INDEX);
+    }
+
+    /**
+     * @return the indices a search has to cover: the tenant's index, or every index when no tenant is given
+     */
+    public IndexCoordinates searchIndex(String tenantId) {
+        return tenantId == null ? allIndices : indexFor(tenantId);
+    }
+
+    private static String dedicatedIndexName(String tenantId) {
+        return SHARED_INDEX + "-" + tenantId;
+    }
+
+    private static String validate(String tenantId) {
+        if (!TENANT_ID.matcher(tenantId).matches()) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenantId);
+        }
+        return tenantId;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.coursesearch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matching rules of instant search. Input and titles are compared folded like
+ * {@link QueryCanonicalizer#fold}.
+ */
+final class TitlePrefix {
+
+    private TitlePrefix() {
+    }
+
+    static String normalize(String input) {
+        return input == null ? "" : QueryCanonicalizer.fold(input).trim().replaceAll("\\s+", " ");
+    }
+
+    static List<String> terms(String normalized) {
+        List<String> terms = new ArrayList<>();
+        for (String term : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * In-process rule: every term typed so far is the prefix of some word in the title.
+     */
+    static boolean matches(String foldedTitle, List<String> terms) {
+        if (foldedTitle == null) {
+            return false;
+        }
+        for (String term : terms) {
+            if (!hasWordStartingWith(foldedTitle, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Completion suggester rule: the title starts with the terms in order, the last one
+     * possibly cut short.
+     */
+    static boolean startsWith(String foldedTitle, List<String> terms) {
+        if (foldedTitle == null) {
+            return false;
+        }
+        List<String> words = terms(foldedTitle);
+        if (words.size() < terms.size()) {
+            return false;
+        }
+        int last = terms.size() - 1;
+        for (int i = 0; i < last; i++) {
+            if (!words.get(i).equals(terms.get(i))) {
+                return false;
+            }
+        }
+        return last < 0 || words.get(last).startsWith(terms.get(last));
+    }
+
+    private static boolean hasWordStartingWith(String title, String term) {
+        int from = 0;
+        while (true) {
+            int at = title.indexOf(term, from);
+            if (at < 0) {
+                return false;
+            }
+            if (at == 0 || !Character.isLetterOrDigit(title.charAt(at - 1))) {
+                return true;
+            }
+            from = at + 1;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.coursesearch.service;
+
+/**
+ * Bounded max-heap keeping the k smallest (key, ref) pairs. Keys and refs live in
+ * parallel primitive arrays so offering a candidate never allocates.
+ */
+final class TopKHeap {
+
+    private final long[] keys;
+    private final long[] refs;
+    private int size;
+
+    TopKHeap(int capacity) {
+        this.keys = new long[capacity];
+        this.refs = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    void offer(long key, long ref) {
+        if (size < keys.length) {
+            keys[size] = key;
+            refs[size] = ref;
+            siftUp(size++);
+        } else if (size > 0 && before(key, ref, keys[0], refs[0])) {
+            keys[0] = key;
+            refs[0] = ref;
+            siftDown(0);
+        }
+    }
+
+    void addAll(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.keys[i], other.refs[i]);
+        }
+    }
+
+    /**
+     * Drains the heap and returns the refs ordered from best to worst.
+     */
+    long[] drainSorted() {
+        long[] sorted = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = refs[0];
+            size--;
+            keys[0] = keys[size];
+            refs[0] = refs[size];
+            siftDown(0);
+        }
+        return sorted;
+    }
+
+    private static boolean before(long keyA, long refA, long keyB, long refB) {
+        return keyA < keyB || (keyA == keyB && refA < refB);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(keys[parent], refs[parent], keys[index], refs[index])) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && before(keys[left], refs[left], keys[right], refs[right])) {
+                worst = right;
+            }
+            if (!before(keys[index], refs[index], keys[worst], refs[worst])) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long ref = refs[a];
+        refs[a] = refs[b];
+        refs[b] = ref;
+    }
+}
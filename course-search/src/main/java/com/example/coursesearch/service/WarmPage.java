@@ -0,0 +1,7 @@
+package com.example.coursesearch.service;
+
+/**
+ * A materialized result page together with its JSON encoding.
+ */
+public record WarmPage(SearchResult result, byte[] json) {
+}
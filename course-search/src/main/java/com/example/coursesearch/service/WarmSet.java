@@ -0,0 +1,237 @@
+package com.example.coursesearch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Materialized result pages for the hottest searches: the configured
+ * {@code search.warm-set.queries} (first {@code pages} pages each) plus the
+ * {@code learned-size} pages searched most often. Pages are rebuilt in the background
+ * whenever the index generation moves and are only served for the generation they were
+ * built from, so a hot page never reaches the backend or the serializer.
+ */
+@Component
+public class WarmSet {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmSet.class);
+
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final IndexGeneration indexGeneration;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<SearchQuery> configured;
+    private final int pages;
+    private final int learnedSize;
+    private final long minHits;
+    private final int maxTracked;
+    private final long refreshIntervalMs;
+    private final long halfLifeMs;
+
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(-1, Map.of());
+    private ScheduledExecutorService refresher;
+    private long lastDecay = System.currentTimeMillis();
+
+    public WarmSet(
+            QueryCanonicalizer queryCanonicalizer,
+            IndexGeneration indexGeneration,
+            ObjectMapper objectMapper,
+            @Value("${search.warm-set.enabled:false}") boolean enabled,
+            @Value("${search.warm-set.queries:}") List<String> queries,
+            @Value("${search.warm-set.pages:2}") int pages,
+            @Value("${search.warm-set.learned-size:100}") int learnedSize,
+            @Value("${search.warm-set.min-hits:5}") long minHits,
+            @Value("${search.warm-set.max-tracked:10000}") int maxTracked,
+            @Value("${search.warm-set.refresh-interval-ms:1000}") long refreshIntervalMs,
+            @Value("${search.warm-set.half-life-ms:600000}") long halfLifeMs
+    ) {
+        if (pages < 1 || learnedSize < 0 || minHits < 1 || maxTracked < learnedSize
+                || refreshIntervalMs < 1 || halfLifeMs < 1) {
+            throw new IllegalArgumentException("Invalid search.warm-set settings");
+        }
+        this.queryCanonicalizer = queryCanonicalizer;
+        this.indexGeneration = indexGeneration;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pages = pages;
+        this.learnedSize = learnedSize;
+        this.minHits = minHits;
+        this.maxTracked = maxTracked;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.halfLifeMs = halfLifeMs;
+        this.configured = new ArrayList<>();
+        for (String query : queries) {
+            if (query.isBlank()) {
+                continue;
+            }
+            SearchQuery parsed = SearchQueryParams.parse(query.trim());
+            if (parsed == null) {
+                throw new IllegalArgumentException("Invalid search.warm-set.queries entry: " + query);
+            }
+            configured.add(parsed);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts rebuilding pages in the background with {@code loader}, which must bypass the
+     * warm set itself.
+     */
+    public synchronized void start(Function<SearchQuery, SearchResult> loader) {
+        if (!enabled || refresher != null) {
+            return;
+        }
+        refresh(loader);
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "warm-set-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh(loader);
+            } catch (RuntimeException e) {
+                logger.warn("Warm set refresh failed", e);
+            }
+        }, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the materialized page for a canonical key, or {@code null} if it is not warm
+     * for the current index generation
+     */
+    public WarmPage find(String key) {
+        Snapshot current = snapshot;
+        if (current.generation() != indexGeneration.current()) {
+            return null;
+        }
+        return current.pages().get(key);
+    }
+
+    /**
+     * Counts a search towards the learned hot set. Only the first {@code pages} pages are
+     * eligible, and at most {@code max-tracked} distinct queries are followed.
+     */
+    public void record(CanonicalQuery canonical) {
+        if (!enabled || learnedSize == 0 || canonical.query().page() >= pages) {
+            return;
+        }
+        Tracked entry = tracked.get(canonical.key());
+        if (entry == null) {
+            if (tracked.size() >= maxTracked) {
+                return;
+            }
+            entry = tracked.computeIfAbsent(canonical.key(), key -> new Tracked(canonical.query()));
+        }
+        entry.hits().incrementAndGet();
+    }
+
+    /**
+     * Rebuilds the pages when the generation or the hot set has changed. Pages of an
+     * unchanged generation are carried over rather than loaded again.
+     */
+    synchronized void refresh(Function<SearchQuery, SearchResult> loader) {
+        decay();
+        Map<String, SearchQuery> wanted = wanted();
+        Snapshot current = snapshot;
+        long generation = indexGeneration.current();
+        if (generation == current.generation() && wanted.keySet().equals(current.pages().keySet())) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Map<String, WarmPage> built = new HashMap<>();
+        int loaded = 0;
+        for (Map.Entry<String, SearchQuery> entry : wanted.entrySet()) {
+            WarmPage page = generation == current.generation() ? current.pages().get(entry.getKey()) : null;
+            if (page == null) {
+                page = materialize(loader, entry.getValue());
+                loaded++;
+            }
+            if (page != null) {
+                built.put(entry.getKey(), page);
+            }
+        }
+        snapshot = new Snapshot(generation, Map.copyOf(built));
+        logger.info("Warm set holds {} pages for generation {} ({} loaded in {} ms)", built.size(), generation,
+                loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Map<String, SearchQuery> wanted() {
+        Map<String, SearchQuery> wanted = new LinkedHashMap<>();
+        for (SearchQuery query : configured) {
+            for (int page = 0; page < pages; page++) {
+                CanonicalQuery canonical = queryCanonicalizer.canonicalize(query.toBuilder().page(page).build());
+                wanted.put(canonical.key(), canonical.query());
+            }
+        }
+        tracked.entrySet().stream()
+                .filter(entry -> entry.getValue().hits().get() >= minHits)
+                .sorted(Comparator.comparingLong((Map.Entry<String, Tracked> entry) -> entry.getValue().hits().get())
+                        .reversed())
+                .limit(learnedSize)
+                .forEach(entry -> wanted.putIfAbsent(entry.getKey(), entry.getValue().query()));
+        return wanted;
+    }
+
+    private WarmPage materialize(Function<SearchQuery, SearchResult> loader, SearchQuery query) {
+        try {
+            SearchResult result = loader.apply(query);
+            return result == null ? null : new WarmPage(result, objectMapper.writeValueAsBytes(result));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            logger.warn("Dropping warm query {}: {}", query, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Halves every count once per half-life so the learned set follows current traffic;
+     * queries that fall to zero stop being tracked.
+     */
+    private void decay() {
+        long now = System.currentTimeMillis();
+        if (now - lastDecay < halfLifeMs) {
+            return;
+        }
+        lastDecay = now;
+        tracked.values().removeIf(entry -> entry.hits().updateAndGet(hits -> hits / 2) == 0);
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private record Tracked(SearchQuery query, AtomicLong hits) {
+
+        Tracked(SearchQuery query) {
+            this(query, new AtomicLong());
+        }
+    }
+
+    private record Snapshot(long generation, Map<String, WarmPage> pages) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.coursesearch.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded sample of production requests through {@link SearchService} before the
+ * application reports ready, so the first real users meet compiled code, filled result
+ * caches and warm Elasticsearch filter caches. Rounds repeat until the p99 of a round is
+ * within {@code target-p99-ms}, {@code max-rounds} is reached or {@code max-duration-ms}
+ * has passed.
+ * <p>
+ * Searches are timed on the uncached path, since a result cache hit says nothing about how
+ * warm the backend is; the first round also loads each result into the result cache. The
+ * warm set is never fed, so replayed requests do not count as hits.
+ */
+@Service
+public class WarmUpService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpService.class);
+
+    private static final String SEARCH_PATH = "/api/search";
+    private static final String SUGGEST_PATH = "/api/search/suggest";
+
+    private final SearchService searchService;
+    private final boolean enabled;
+    private final Resource queries;
+    private final int maxRounds;
+    private final long targetP99Nanos;
+    private final long maxDurationNanos;
+
+    private volatile WarmUpReport report;
+
+    public WarmUpService(
+            SearchService searchService,
+            @Value("${search.warm-up.enabled:true}") boolean enabled,
+            @Value("${search.warm-up.queries:classpath:warmup-queries.txt}") Resource queries,
+            @Value("${search.warm-up.max-rounds:5}") int maxRounds,
+            @Value("${search.warm-up.target-p99-ms:50}") long targetP99Ms,
+            @Value("${search.warm-up.max-duration-ms:60000}") long maxDurationMs
+    ) {
+        if (maxRounds < 1 || targetP99Ms < 0 || maxDurationMs < 1) {
+            throw new IllegalArgumentException("Invalid search.warm-up settings");
+        }
+        this.searchService = searchService;
+        this.enabled = enabled;
+        this.queries = queries;
+        this.maxRounds = maxRounds;
+        this.targetP99Nanos = TimeUnit.MILLISECONDS.toNanos(targetP99Ms);
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+    }
+
+    /**
+     * @return the outcome of the warm-up, or {@code null} while it has not finished
+     */
+    public WarmUpReport report() {
+        return report;
+    }
+
+    public WarmUpReport warmUp() {
+        if (!enabled) {
+            report = new WarmUpReport(0, 0, 0, 0, 0, true);
+            return report;
+        }
+
+        List<String> requests = load();
+        long start = System.nanoTime();
+        int rounds = 0;
+        int failures = 0;
+        long p99 = 0;
+        while (rounds < maxRounds && System.nanoTime() - start < maxDurationNanos) {
+            long[] latencies = new long[requests.size()];
+            int measured = 0;
+            for (String request : requests) {
+                long latency = replay(request, rounds == 0);
+                if (latency >= 0) {
+                    latencies[measured++] = latency;
+                } else if (rounds == 0) {
+                    failures++;
+                }
+            }
+            rounds++;
+            p99 = p99(Arrays.copyOf(latencies, measured));
+            if (p99 <= targetP99Nanos) {
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        report = new WarmUpReport(requests.size(), failures, rounds, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                TimeUnit.NANOSECONDS.toMicros(p99) / 1000.0, p99 <= targetP99Nanos);
+        logger.info("Warm-up replayed {} requests x {} rounds in {} ms, p99 {} ms ({} failed, target {})",
+                report.requests(), report.rounds(), report.durationMs(), report.p99Ms(), report.failures(),
+                report.targetReached() ? "reached" : "missed");
+        return report;
+    }
+
+    /**
+     * @param prime whether to also load a search into the result cache after timing it
+     * @return the latency in nanoseconds, or {@code -1} for malformed lines and failing requests
+     */
+    private long replay(String request, boolean prime) {
+        int query = request.indexOf('?');
+        String path = query < 0 ? request : request.substring(0, query);
+        String params = query < 0 ? "" : request.substring(query + 1);
+        try {
+            if (SEARCH_PATH.equals(path)) {
+                SearchQuery searchQuery = SearchQueryParams.parse(params);
+                if (searchQuery == null) {
+                    return -1;
+                }
+                long began = System.nanoTime();
+                searchService.searchUncached(searchQuery);
+                long latency = System.nanoTime() - began;
+                if (prime) {
+                    searchService.load(searchQuery);
+                }
+                return latency;
+            }
+            if (SUGGEST_PATH.equals(path)) {
+                // Shares its q and tenant parameters with a search
+                SearchQuery suggestQuery = SearchQueryParams.parse(params);
+                if (suggestQuery == null || suggestQuery.keyword() == null) {
+                    return -1;
+                }
+                long began = System.nanoTime();
+                searchService.suggest(suggestQuery.tenantId(), suggestQuery.keyword());
+                return System.nanoTime() - began;
+            }
+            return -1;
+        } catch (RuntimeException e) {
+            logger.debug("Warm-up request {} failed: {}", request, e.getMessage());
+            return -1;
+        }
+    }
+
+    private List<String> load() {
+        List<String> requests = new ArrayList<>();
+        try {
+            String content = queries.getContentAsString(StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    requests.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read warm-up queries " + queries, e);
+        }
+        return requests;
+    }
+
+    static long p99(long[] latencies) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+
+    /**
+     * @param p99Ms         p99 latency of the last round, searches measured without the result cache
+     * @param targetReached whether the last round met {@code target-p99-ms}
+     */
+    public record WarmUpReport(int requests, int failures, int rounds, long durationMs, double p99Ms,
+                               boolean targetReached) {
+    }
+}
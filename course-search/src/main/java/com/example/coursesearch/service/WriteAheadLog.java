@@ -0,0 +1,203 @@
+package com.example.coursesearch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of {@link CourseWrite}s, one JSON document per line, split into segment
+ * files {@code <path>.000001}, {@code <path>.000002}, ... Every append is forced to disk
+ * before it returns. Once the active segment reaches {@code segmentBytes} a new one is
+ * started, and a closed segment is deleted as soon as all of its entries are flushed, so
+ * the log stays bounded under steady traffic. Callers serialize access.
+ * <p>
+ * Entries must be flushed in the order they were appended, which holds for a FIFO queue
+ * fed under the same lock as {@link #append}.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final long segmentBytes;
+    private final Deque<Segment> closed = new ArrayDeque<>();
+
+    private Segment active;
+    private FileChannel channel;
+    private long flushedEntries;
+
+    WriteAheadLog(Path path, ObjectMapper objectMapper, long segmentBytes) {
+        if (segmentBytes < 1) {
+            throw new IllegalArgumentException("segmentBytes must be positive");
+        }
+        this.path = path.toAbsolutePath();
+        this.objectMapper = objectMapper;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(this.path.getParent());
+            if (Files.isRegularFile(this.path)) {
+                // Unsegmented log written before rotation was introduced
+                closed.add(new Segment(this.path, 0));
+            }
+            long lastSequence = 0;
+            for (Path existing : existingSegments()) {
+                lastSequence = sequence(existing);
+                closed.add(new Segment(existing, 0));
+            }
+            open(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-ahead log " + path, e);
+        }
+    }
+
+    /**
+     * Reads every complete entry of the segments left by the previous process, oldest first.
+     * A torn last line left by a crash mid-append is skipped.
+     */
+    List<CourseWrite> readAll() {
+        List<CourseWrite> writes = new ArrayList<>();
+        for (Segment segment : closed) {
+            int before = writes.size();
+            read(segment.path(), writes);
+            segment.entries = writes.size() - before;
+        }
+        markFlushed(0);
+        return writes;
+    }
+
+    private void read(Path segment, List<CourseWrite> writes) {
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    writes.add(objectMapper.readValue(line, CourseWrite.class));
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable write-ahead log entry in {}", segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read write-ahead log " + segment, e);
+        }
+    }
+
+    void append(List<CourseWrite> writes) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (CourseWrite write : writes) {
+                lines.append(objectMapper.writeValueAsString(write)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            active.entries += writes.size();
+            if (channel.size() >= segmentBytes) {
+                channel.close();
+                closed.add(active);
+                open(sequence(active.path()) + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to write-ahead log " + path, e);
+        }
+    }
+
+    /**
+     * Checkpoints the oldest {@code count} entries as flushed: closed segments whose entries
+     * have all been flushed are deleted, and the active segment is truncated once it is
+     * the only one left and fully flushed.
+     */
+    void markFlushed(long count) {
+        flushedEntries += count;
+        try {
+            while (!closed.isEmpty() && closed.peekFirst().entries <= flushedEntries) {
+                Segment segment = closed.pollFirst();
+                flushedEntries -= segment.entries;
+                Files.deleteIfExists(segment.path());
+            }
+            if (closed.isEmpty() && active.entries > 0 && flushedEntries >= active.entries) {
+                channel.truncate(0);
+                channel.force(false);
+                active.entries = 0;
+                flushedEntries = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot checkpoint write-ahead log " + path, e);
+        }
+    }
+
+    /**
+     * @return the segment files on disk, oldest first
+     */
+    List<Path> segments() {
+        List<Path> segments = new ArrayList<>();
+        closed.forEach(segment -> segments.add(segment.path()));
+        segments.add(active.path());
+        return segments;
+    }
+
+    private void open(long sequence) throws IOException {
+        Path segment = path.resolveSibling(String.format("%s.%06d", path.getFileName(), sequence));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        active = new Segment(segment, 0);
+    }
+
+    private List<Path> existingSegments() throws IOException {
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(prefix)
+                            && file.getFileName().toString().substring(prefix.length()).matches("\\d+"))
+                    .sorted((a, b) -> Long.compare(sequence(a), sequence(b)))
+                    .toList();
+        }
+    }
+
+    private static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close write-ahead log {}", path, e);
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private long entries;
+
+        private Segment(Path path, long entries) {
+            this.path = path;
+            this.entries = entries;
+        }
+
+        Path path() {
+            return path;
+        }
+    }
+}
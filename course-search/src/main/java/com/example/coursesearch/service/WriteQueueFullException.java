@@ -0,0 +1,11 @@
+package com.example.coursesearch.service;
+
+/**
+ * Thrown when the write queue cannot take a request without exceeding its capacity.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.coursesearch.config;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ElasticsearchConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ElasticsearchConfig.class)
+            .withBean(RestClient.class, () -> mock(RestClient.class))
+            .withBean(JsonpMapper.class, JacksonJsonpMapper::new);
+
+    @Test
+    void testTransport_KeptAutoConfiguredWhileHedgingIsOff() {
+        contextRunner.run(context -> assertTrue(context.getBeansOfType(ElasticsearchTransport.class).isEmpty()));
+        contextRunner.withPropertyValues("search.hedging.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(ElasticsearchTransport.class).isEmpty()));
+    }
+
+    @Test
+    void testTransport_InterruptibleWhenHedgingIsOn() {
+        contextRunner.withPropertyValues("search.hedging.enabled=true")
+                .run(context -> assertInstanceOf(InterruptibleElasticsearchTransport.class,
+                        context.getBean(ElasticsearchTransport.class)));
+    }
+}
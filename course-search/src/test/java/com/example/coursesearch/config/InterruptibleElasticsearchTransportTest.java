@@ -0,0 +1,66 @@
+package com.example.coursesearch.config;
+
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InterruptibleElasticsearchTransportTest {
+
+    @Mock
+    private ElasticsearchTransport delegate;
+
+    @Mock
+    private Endpoint<String, String, Object> endpoint;
+
+    @Test
+    void testPerformRequest_ReturnsAsyncResponse() throws Exception {
+        when(delegate.performRequestAsync(eq("request"), eq(endpoint), any())).thenReturn(CompletableFuture.completedFuture("response"));
+
+        assertEquals("response", new InterruptibleElasticsearchTransport(delegate).performRequest("request", endpoint, null));
+    }
+
+    @Test
+    void testPerformRequest_RethrowsFailureCause() {
+        when(delegate.performRequestAsync(any(), eq(endpoint), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("connection refused")));
+
+        IOException e = assertThrows(IOException.class,
+                () -> new InterruptibleElasticsearchTransport(delegate).performRequest("request", endpoint, null));
+        assertEquals("connection refused", e.getMessage());
+    }
+
+    @Test
+    void testPerformRequest_InterruptCancelsRequest() throws Exception {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        when(delegate.performRequestAsync(any(), eq(endpoint), any())).thenReturn(response);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                new InterruptibleElasticsearchTransport(delegate).performRequest("request", endpoint, null);
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+
+        caller.start();
+        verify(delegate, timeout(1_000)).performRequestAsync(any(), eq(endpoint), any());
+        caller.interrupt();
+        caller.join(1_000);
+
+        assertTrue(response.isCancelled());
+        assertInstanceOf(InterruptedIOException.class, thrown.get());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.coursesearch.config;
+
+import com.github.luben.zstd.Zstd;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZstdCompressionFilterTest {
+
+    private static final byte[] BODY = "{\"title\":\"Math for Beginners\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    private final ZstdCompressionFilter filter = new ZstdCompressionFilter(3, 1024);
+
+    @Test
+    void testFilter_CompressesWhenClientAcceptsZstd() throws Exception {
+        MockHttpServletResponse response = run("gzip, zstd", HttpServletResponse.SC_OK, BODY);
+
+        assertEquals("zstd", response.getHeader("Content-Encoding"));
+        assertTrue(response.getHeaders("Vary").contains("Accept-Encoding"));
+        byte[] compressed = response.getContentAsByteArray();
+        assertTrue(compressed.length < BODY.length / 10);
+        assertEquals(compressed.length, response.getContentLength());
+        assertArrayEquals(BODY, Zstd.decompress(compressed, BODY.length));
+    }
+
+    @Test
+    void testFilter_PassesThroughSmallAndErrorResponses() throws Exception {
+        byte[] small = "{}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse tiny = run("zstd", HttpServletResponse.SC_OK, small);
+        assertNull(tiny.getHeader("Content-Encoding"));
+        assertArrayEquals(small, tiny.getContentAsByteArray());
+
+        MockHttpServletResponse error = run("zstd", HttpServletResponse.SC_INTERNAL_SERVER_ERROR, BODY);
+        assertNull(error.getHeader("Content-Encoding"));
+        assertArrayEquals(BODY, error.getContentAsByteArray());
+    }
+
+    @Test
+    void testFilter_SkippedWithoutZstd() throws Exception {
+        MockHttpServletResponse response = run("gzip, deflate", HttpServletResponse.SC_OK, BODY);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void testFilter_SkippedWhenGzipRankedHigher() throws Exception {
+        MockHttpServletResponse response = run("gzip;q=1.0, zstd;q=0.5", HttpServletResponse.SC_OK, BODY);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void testAccepts() {
+        assertTrue(ZstdCompressionFilter.accepts("zstd"));
+        assertTrue(ZstdCompressionFilter.accepts("gzip;q=0.5, ZSTD;q=1.0"));
+        assertTrue(ZstdCompressionFilter.accepts("gzip;q=0.8, zstd;q=0.8"));
+        assertFalse(ZstdCompressionFilter.accepts("zstd;q=0"));
+        assertFalse(ZstdCompressionFilter.accepts("gzip, br"));
+        assertFalse(ZstdCompressionFilter.accepts("gzip;q=1.0, ZSTD;q=0.5"));
+        assertFalse(ZstdCompressionFilter.accepts("zstd;q=0.5, *"));
+        assertTrue(ZstdCompressionFilter.accepts("zstd;q=0.5, *;q=0.1"));
+        assertFalse(ZstdCompressionFilter.accepts(null));
+    }
+
+    private MockHttpServletResponse run(String acceptEncoding, int status, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+            @Override
+            protected void service(jakarta.servlet.http.HttpServletRequest req, HttpServletResponse res)
+                    throws java.io.IOException {
+                res.setStatus(status);
+                res.setContentType("application/json");
+                res.getOutputStream().write(body);
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.service.IndexGeneration;
+import com.example.coursesearch.service.QueryCanonicalizer;
+import com.example.coursesearch.service.SearchQuery;
+import com.example.coursesearch.service.SearchResult;
+import com.example.coursesearch.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalRequestInterceptorTest {
+
+    private final QueryCanonicalizer canonicalizer = new QueryCanonicalizer();
+    private final IndexGeneration indexGeneration = new IndexGeneration();
+
+    @Mock
+    private SearchService searchService;
+
+    private ConditionalRequestInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ConditionalRequestInterceptor(searchService, canonicalizer, indexGeneration, 30);
+        lenient().when(searchService.canonicalize(any(SearchQuery.class)))
+                .thenAnswer(invocation -> canonicalizer.canonicalize(invocation.getArgument(0)));
+    }
+
+    @Test
+    void testPreHandle_MatchingEtagIsNotModified() throws Exception {
+        String etag = firstEtag(search("category", "Math"));
+
+        MockHttpServletRequest repeat = search("category", " Math ");
+        repeat.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(repeat, response, new Object()));
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("max-age=30, must-revalidate, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        verify(searchService, never()).search(any(SearchQuery.class));
+    }
+
+    @Test
+    void testPreHandle_NewGenerationChangesEtag() throws Exception {
+        String etag = firstEtag(search("category", "Math"));
+        indexGeneration.advance();
+
+        MockHttpServletRequest repeat = search("category", "Math");
+        repeat.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertTrue(interceptor.preHandle(repeat, new MockHttpServletResponse(), new Object()));
+        assertNotEquals(etag, ResponseValidators.of(repeat).etag());
+    }
+
+    @Test
+    void testPreHandle_EtagsDifferAcrossProcesses() throws Exception {
+        Set<String> etags = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            ConditionalRequestInterceptor restarted =
+                    new ConditionalRequestInterceptor(searchService, canonicalizer, new IndexGeneration(), 30);
+            MockHttpServletRequest request = search("category", "Math");
+            assertTrue(restarted.preHandle(request, new MockHttpServletResponse(), new Object()));
+            assertTrue(etags.add(ResponseValidators.of(request).etag()));
+        }
+
+        MockHttpServletRequest stale = search("category", "Math");
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, String.join(", ", etags));
+        assertTrue(interceptor.preHandle(stale, new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void testPreHandle_SuggestEtagFollowsPrefix() throws Exception {
+        String etag = firstEtag(suggest("math"));
+        assertEquals(etag, firstEtag(suggest(" math ")));
+        assertNotEquals(etag, firstEtag(suggest("mat")));
+
+        MockHttpServletRequest repeat = suggest("math");
+        repeat.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(repeat, response, new Object()));
+        assertEquals(304, response.getStatus());
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testPreHandle_SuggestEtagFollowsTenant() throws Exception {
+        MockHttpServletRequest acme = suggest("math");
+        acme.setParameter("tenant", "acme");
+
+        assertNotEquals(firstEtag(suggest("math")), firstEtag(acme));
+    }
+
+    @Test
+    void testPreHandle_InvalidRequestsAreNotTagged() throws Exception {
+        MockHttpServletRequest outOfRange = search("size", "500");
+        assertTrue(interceptor.preHandle(outOfRange, new MockHttpServletResponse(), new Object()));
+        assertNull(ResponseValidators.of(outOfRange));
+
+        when(searchService.canonicalize(any(SearchQuery.class))).thenThrow(new IllegalArgumentException("minAge"));
+        MockHttpServletRequest rejected = search("minAge", "10");
+        assertTrue(interceptor.preHandle(rejected, new MockHttpServletResponse(), new Object()));
+        assertNull(ResponseValidators.of(rejected));
+
+        MockHttpServletRequest missingPrefix = new MockHttpServletRequest("GET", "/api/search/suggest");
+        assertTrue(interceptor.preHandle(missingPrefix, new MockHttpServletResponse(), new Object()));
+        assertNull(ResponseValidators.of(missingPrefix));
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(ConditionalRequestInterceptor.matches("W/\"1-abc\"", "W/\"1-abc\""));
+        assertTrue(ConditionalRequestInterceptor.matches("\"1-abc\"", "W/\"1-abc\""));
+        assertTrue(ConditionalRequestInterceptor.matches("\"x\", W/\"1-abc\"", "W/\"1-abc\""));
+        assertTrue(ConditionalRequestInterceptor.matches("*", "W/\"1-abc\""));
+        assertFalse(ConditionalRequestInterceptor.matches("W/\"2-abc\"", "W/\"1-abc\""));
+        assertFalse(ConditionalRequestInterceptor.matches(null, "W/\"1-abc\""));
+    }
+
+    @Test
+    void testAdvice_TagsOnlySearchAndSuggestBodies() throws Exception {
+        MockHttpServletRequest request = search("category", "Math");
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        ResponseValidatorsAdvice advice = new ResponseValidatorsAdvice();
+
+        ServletServerHttpResponse ok = new ServletServerHttpResponse(new MockHttpServletResponse());
+        advice.beforeBodyWrite(new SearchResult(0, List.of()), null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), ok);
+        assertEquals(ResponseValidators.of(request).etag(), ok.getHeaders().getETag());
+
+        ServletServerHttpResponse error = new ServletServerHttpResponse(new MockHttpServletResponse());
+        advice.beforeBodyWrite(Map.of("status", 500), null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), error);
+        assertNull(error.getHeaders().getETag());
+        assertNull(error.getHeaders().getCacheControl());
+    }
+
+    private String firstEtag(MockHttpServletRequest request) throws Exception {
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+        return ResponseValidators.of(request).etag();
+    }
+
+    private static MockHttpServletRequest search(String name, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        request.setParameter(name, value);
+        return request;
+    }
+
+    private static MockHttpServletRequest suggest(String q) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search/suggest");
+        request.setParameter("q", q);
+        return request;
+    }
+}
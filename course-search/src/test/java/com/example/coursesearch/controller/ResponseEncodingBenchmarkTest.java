@@ -0,0 +1,155 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.document.CourseDocument;
+import com.example.coursesearch.service.CourseHit;
+import com.example.coursesearch.service.SearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.github.luben.zstd.Zstd;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and encode/decode CPU of a full 100-hit search page in every encoding the
+ * search API offers. Excluded from the default build; run with {@code ./mvnw test -Pbenchmark}.
+ * Logs one line per encoding; assertions only cover round trips and the size ordering, not
+ * timings.
+ */
+@Tag("benchmark")
+class ResponseEncodingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseEncodingBenchmarkTest.class);
+
+    private static final int ITERATIONS = 300;
+
+    @Test
+    void benchmarkEncodings() throws Exception {
+        SearchResult page = page(100);
+        ObjectMapper json = mapper(null);
+        ObjectMapper cbor = mapper(new CBORFactory());
+        ObjectMapper smile = mapper(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+
+        Measurement plain = measure("json", () -> json.writeValueAsBytes(page), bytes -> json.readValue(bytes, SearchResult.class));
+        Measurement gzip = measure("json+gzip", () -> gzip(json.writeValueAsBytes(page)),
+                bytes -> json.readValue(gunzip(bytes), SearchResult.class));
+        Measurement zstd = measure("json+zstd", () -> Zstd.compress(json.writeValueAsBytes(page), 3),
+                bytes -> json.readValue(Zstd.decompress(bytes, (int) Zstd.getFrameContentSize(bytes)), SearchResult.class));
+        Measurement smileResult = measure("smile", () -> smile.writeValueAsBytes(page), bytes -> smile.readValue(bytes, SearchResult.class));
+        Measurement cborResult = measure("cbor", () -> cbor.writeValueAsBytes(page), bytes -> cbor.readValue(bytes, SearchResult.class));
+
+        for (Measurement measurement : List.of(plain, gzip, zstd, smileResult, cborResult)) {
+            assertEquals(page, measurement.decoded(), measurement.name() + " round trip");
+            logger.info("{}: {} bytes, encode {} us, decode {} us", measurement.name(), measurement.bytes(),
+                    String.format("%.1f", measurement.encodeMicros()), String.format("%.1f", measurement.decodeMicros()));
+        }
+        assertTrue(smileResult.bytes() < plain.bytes());
+        assertTrue(cborResult.bytes() < plain.bytes());
+        assertTrue(gzip.bytes() < plain.bytes() / 2);
+        assertTrue(zstd.bytes() < plain.bytes() / 2);
+    }
+
+    private static Measurement measure(String name, Encoder encoder, Decoder decoder) throws Exception {
+        byte[] encoded = encoder.encode();
+        SearchResult decoded = decoder.decode(encoded);
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(encoder.encode());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encoder.encode();
+        }
+        long encodeNanos = threads.getCurrentThreadCpuTime() - start;
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(encoded);
+        }
+        long decodeNanos = threads.getCurrentThreadCpuTime() - start;
+        return new Measurement(name, encoded.length, encodeNanos / 1000.0 / ITERATIONS,
+                decodeNanos / 1000.0 / ITERATIONS, decoded);
+    }
+
+    private static ObjectMapper mapper(com.fasterxml.jackson.core.JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule());
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+
+    private static SearchResult page(int size) {
+        Random random = new Random(7);
+        String[] categories = {"Math", "Science", "Art", "Music", "Language"};
+        ZonedDateTime base = ZonedDateTime.parse("2025-06-01T09:00:00Z");
+        List<CourseHit> hits = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            CourseDocument course = new CourseDocument();
+            course.setId(String.valueOf(1000 + i));
+            course.setTenantId("brightminds");
+            course.setTitle(categories[i % categories.length] + " Course " + i);
+            course.setDescription("A hands-on " + categories[i % categories.length].toLowerCase()
+                    + " course with weekly projects, small groups and take-home activities for curious kids.");
+            course.setCategory(categories[i % categories.length]);
+            course.setType(i % 3 == 0 ? "CLUB" : "COURSE");
+            course.setGradeRange("3rd-5th");
+            course.setMinAge(7 + i % 4);
+            course.setMaxAge(11 + i % 4);
+            course.setPrice(Math.round(random.nextDouble() * 30000) / 100.0);
+            course.setNextSessionDate(base.plusHours(random.nextInt(2000)));
+            course.setLocation(new GeoPoint(12.9 + random.nextDouble() / 10, 77.5 + random.nextDouble() / 10));
+            course.setPopularity((double) random.nextInt(500));
+            hits.add(CourseHit.from(course));
+        }
+        return new SearchResult(5000, hits);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    private interface Encoder {
+        byte[] encode() throws Exception;
+    }
+
+    private interface Decoder {
+        SearchResult decode(byte[] bytes) throws Exception;
+    }
+
+    private record Measurement(String name, int bytes, double encodeMicros, double decodeMicros, SearchResult decoded) {
+    }
+}
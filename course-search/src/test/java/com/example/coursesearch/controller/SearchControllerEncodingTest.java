@@ -0,0 +1,128 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.config.JacksonConfig;
+import com.example.coursesearch.config.SecurityConfig;
+import com.example.coursesearch.document.CourseDocument;
+import com.example.coursesearch.service.CourseHit;
+import com.example.coursesearch.service.CourseIndexService;
+import com.example.coursesearch.service.CourseWriteService;
+import com.example.coursesearch.service.IndexGeneration;
+import com.example.coursesearch.service.InstantSearchService;
+import com.example.coursesearch.service.QueryCanonicalizer;
+import com.example.coursesearch.service.SearchQuery;
+import com.example.coursesearch.service.SearchResult;
+import com.example.coursesearch.service.SearchService;
+import com.example.coursesearch.service.WarmSet;
+import com.example.coursesearch.service.WarmUpService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation of {@code GET /api/search} through the converters registered by
+ * {@link JacksonConfig}.
+ */
+@WebMvcTest(SearchController.class)
+@Import({JacksonConfig.class, SecurityConfig.class})
+class SearchControllerEncodingTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private InstantSearchService instantSearchService;
+
+    @MockitoBean
+    private QueryCanonicalizer queryCanonicalizer;
+
+    @MockitoBean
+    private IndexGeneration indexGeneration;
+
+    @MockitoBean
+    private WarmSet warmSet;
+
+    // Startup runner dependencies of the application class
+    @MockitoBean
+    private CourseIndexService courseIndexService;
+
+    @MockitoBean
+    private CourseWriteService courseWriteService;
+
+    @MockitoBean
+    private WarmUpService warmUpService;
+
+    private SearchResult result;
+
+    @BeforeEach
+    void setUp() {
+        CourseDocument course = new CourseDocument();
+        course.setId("1");
+        course.setTitle("Math for Beginners");
+        course.setCategory("Math");
+        course.setType("COURSE");
+        course.setPrice(199.99);
+        course.setNextSessionDate(ZonedDateTime.parse("2025-06-10T15:00:00Z"));
+        result = new SearchResult(1L, List.of(CourseHit.from(course)));
+
+        QueryCanonicalizer canonicalizer = new QueryCanonicalizer();
+        when(searchService.canonicalize(any(SearchQuery.class)))
+                .thenAnswer(invocation -> canonicalizer.canonicalize(invocation.getArgument(0)));
+        when(searchService.search(any(SearchQuery.class))).thenReturn(result);
+    }
+
+    @Test
+    void testSearch_CborWhenAccepted() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/search").param("category", "Math").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(result, mapper(new CBORFactory()).readValue(response.getResponse().getContentAsByteArray(), SearchResult.class));
+    }
+
+    @Test
+    void testSearch_SmileWhenAccepted() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/search").param("category", "Math").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        assertEquals(result, mapper(new SmileFactory()).readValue(response.getResponse().getContentAsByteArray(), SearchResult.class));
+    }
+
+    @Test
+    void testSearch_JsonByDefault() throws Exception {
+        mockMvc.perform(get("/api/search").param("category", "Math"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private static ObjectMapper mapper(com.fasterxml.jackson.core.JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json().factory(factory).build();
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.coursesearch.controller;
 
 import com.example.coursesearch.document.CourseDocument;
+import com.example.coursesearch.service.CourseHit;
+import com.example.coursesearch.service.CourseSummary;
+import com.example.coursesearch.service.InstantResult;
+import com.example.coursesearch.service.InstantSearchService;
+import com.example.coursesearch.service.SearchQuery;
 import com.example.coursesearch.service.SearchResult;
 import com.example.coursesearch.service.SearchService;
 import com.example.coursesearch.service.SuggestResult;
@@ -29,6 +34,9 @@ class SearchControllerTest {
     @Mock
     private SearchService searchService;
 
+    @Mock
+    private InstantSearchService instantSearchService;
+
     @InjectMocks
     private SearchController searchController;
 
@@ -49,7 +57,7 @@ class SearchControllerTest {
         sampleCourse.setPrice(199.99);
         sampleCourse.setNextSessionDate(ZonedDateTime.parse("2025-06-10T15:00:00Z"));
 
-        sampleSearchResult = new SearchResult(1L, Arrays.asList(sampleCourse));
+        sampleSearchResult = new SearchResult(1L, Arrays.asList(CourseHit.from(sampleCourse)));
         sampleSuggestResult = new SuggestResult(Arrays.asList("Math for Beginners", "Advanced Math"), 2L);
     }
 
@@ -63,90 +71,88 @@ class SearchControllerTest {
         Double minPrice = 100.0;
         Double maxPrice = 300.0;
         ZonedDateTime startDate = ZonedDateTime.parse("2025-06-01T00:00:00Z");
+        Double lat = 37.77;
+        Double lon = -122.42;
+        Double radius = 10.0;
         String sort = "priceAsc";
         int page = 0;
         int size = 10;
 
-        when(searchService.search(eq(keyword), eq(minAge), eq(maxAge), eq(category), eq(type),
-                eq(minPrice), eq(maxPrice), eq(startDate), eq(sort), eq(page), eq(size)))
-                .thenReturn(sampleSearchResult);
+        SearchQuery expectedQuery = SearchQuery.builder()
+                .keyword(keyword).minAge(minAge).maxAge(maxAge).category(category).type(type)
+                .minPrice(minPrice).maxPrice(maxPrice).startDate(startDate)
+                .lat(lat).lon(lon).radiusKm(radius)
+                .sort(sort).page(page).size(size)
+                .build();
+        when(searchService.search(expectedQuery)).thenReturn(sampleSearchResult);
 
 
         SearchResult result = searchController.searchCourses(keyword, minAge, maxAge, category, type,
-                minPrice, maxPrice, startDate, sort, page, size);
+                minPrice, maxPrice, startDate, lat, lon, radius, null, sort, page, size);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        assertEquals("Math for Beginners", result.getCourses().get(0).getTitle());
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        assertEquals("Math for Beginners", result.courses().get(0).title());
 
-        verify(searchService, times(1)).search(eq(keyword), eq(minAge), eq(maxAge), eq(category), eq(type),
-                eq(minPrice), eq(maxPrice), eq(startDate), eq(sort), eq(page), eq(size));
+        verify(searchService, times(1)).search(expectedQuery);
     }
 
     @Test
     void testSearchCourses_WithOnlyKeyword() {
         String keyword = "math";
-        when(searchService.search(eq(keyword), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(0), eq(10)))
-                .thenReturn(sampleSearchResult);
+        SearchQuery expectedQuery = query().keyword(keyword).build();
+        when(searchService.search(expectedQuery)).thenReturn(sampleSearchResult);
 
         SearchResult result = searchController.searchCourses(keyword, null, null, null, null,
-                null, null, null, "nextSessionDate", 0, 10);
+                null, null, null, null, null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
 
-        verify(searchService, times(1)).search(eq(keyword), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(0), eq(10));
+        verify(searchService, times(1)).search(expectedQuery);
     }
 
     @Test
     void testSearchCourses_WithNoParameters() {
-        when(searchService.search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(0), eq(10)))
-                .thenReturn(sampleSearchResult);
+        SearchQuery expectedQuery = query().build();
+        when(searchService.search(expectedQuery)).thenReturn(sampleSearchResult);
 
         SearchResult result = searchController.searchCourses(null, null, null, null, null,
-                null, null, null, "nextSessionDate", 0, 10);
+                null, null, null, null, null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
 
-        verify(searchService, times(1)).search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(0), eq(10));
+        verify(searchService, times(1)).search(expectedQuery);
     }
 
     @Test
     void testSearchCourses_WhenServiceReturnsNull() {
-        when(searchService.search(eq("math"), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(0), eq(10)))
-                .thenReturn(null);
+        when(searchService.search(query().keyword("math").build())).thenReturn(null);
 
         SearchResult result = searchController.searchCourses("math", null, null, null, null,
-                null, null, null, "nextSessionDate", 0, 10);
+                null, null, null, null, null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(0L, result.getTotal());
-        assertTrue(result.getCourses().isEmpty());
+        assertEquals(0L, result.total());
+        assertTrue(result.courses().isEmpty());
     }
 
     @Test
     void testSearchCourses_WithCustomPagination() {
         int page = 2;
         int size = 5;
-        when(searchService.search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(page), eq(size)))
-                .thenReturn(sampleSearchResult);
+        SearchQuery expectedQuery = query().page(page).size(size).build();
+        when(searchService.search(expectedQuery)).thenReturn(sampleSearchResult);
 
         SearchResult result = searchController.searchCourses(null, null, null, null, null,
-                null, null, null, "nextSessionDate", page, size);
+                null, null, null, null, null, null, null, "nextSessionDate", page, size);
 
         assertNotNull(result);
-        verify(searchService, times(1)).search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq("nextSessionDate"), eq(page), eq(size));
+        verify(searchService, times(1)).search(expectedQuery);
     }
 
     @Test
@@ -154,99 +160,136 @@ class SearchControllerTest {
         String sortPriceAsc = "priceAsc";
         String sortPriceDesc = "priceDesc";
         
-        when(searchService.search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq(sortPriceAsc), eq(0), eq(10)))
+        when(searchService.search(query().sort(sortPriceAsc).build()))
                 .thenReturn(sampleSearchResult);
         
-        when(searchService.search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq(sortPriceDesc), eq(0), eq(10)))
+        when(searchService.search(query().sort(sortPriceDesc).build()))
                 .thenReturn(sampleSearchResult);
 
         SearchResult result1 = searchController.searchCourses(null, null, null, null, null,
-                null, null, null, sortPriceAsc, 0, 10);
+                null, null, null, null, null, null, null, sortPriceAsc, 0, 10);
         
         SearchResult result2 = searchController.searchCourses(null, null, null, null, null,
-                null, null, null, sortPriceDesc, 0, 10);
+                null, null, null, null, null, null, null, sortPriceDesc, 0, 10);
 
         assertNotNull(result1);
         assertNotNull(result2);
         
-        verify(searchService, times(1)).search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq(sortPriceAsc), eq(0), eq(10));
-        verify(searchService, times(1)).search(isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), eq(sortPriceDesc), eq(0), eq(10));
+        verify(searchService, times(1)).search(query().sort(sortPriceAsc).build());
+        verify(searchService, times(1)).search(query().sort(sortPriceDesc).build());
+    }
+
+    @Test
+    void testSearchCourses_WithLocationAndDistanceSort() {
+        SearchQuery expectedQuery = query().lat(12.97).lon(77.59).radiusKm(10.0).sort("distance").build();
+        when(searchService.search(expectedQuery)).thenReturn(sampleSearchResult);
+
+        SearchResult result = searchController.searchCourses(null, null, null, null, null,
+                null, null, null, 12.97, 77.59, 10.0, null, "distance", 0, 10);
+
+        assertNotNull(result);
+        verify(searchService, times(1)).search(expectedQuery);
+    }
+
+    @Test
+    void testSearchCourses_WithTenant() {
+        SearchQuery expectedQuery = query().tenantId("acme").keyword("math").build();
+        when(searchService.search(expectedQuery)).thenReturn(sampleSearchResult);
+
+        SearchResult result = searchController.searchCourses("math", null, null, null, null,
+                null, null, null, null, null, null, "acme", "nextSessionDate", 0, 10);
+
+        assertNotNull(result);
+        verify(searchService, times(1)).search(expectedQuery);
     }
 
     @Test
     void testSuggestCourses_WithValidQuery() {
         String query = "math";
-        when(searchService.suggest(query)).thenReturn(sampleSuggestResult);
+        when(searchService.suggest(null, query)).thenReturn(sampleSuggestResult);
 
-        SuggestResult result = searchController.suggestCourses(query);
+        SuggestResult result = searchController.suggestCourses(query, null);
 
         assertNotNull(result);
-        assertEquals(2L, result.getTotalHits());
-        assertEquals(2, result.getSuggestions().size());
-        assertTrue(result.getSuggestions().contains("Math for Beginners"));
-        assertTrue(result.getSuggestions().contains("Advanced Math"));
+        assertEquals(2L, result.totalHits());
+        assertEquals(2, result.suggestions().size());
+        assertTrue(result.suggestions().contains("Math for Beginners"));
+        assertTrue(result.suggestions().contains("Advanced Math"));
 
-        verify(searchService, times(1)).suggest(query);
+        verify(searchService, times(1)).suggest(null, query);
     }
 
     @Test
     void testSuggestCourses_WithEmptyQuery() {
         String query = "";
         SuggestResult emptyResult = new SuggestResult(Collections.emptyList(), 0L);
-        when(searchService.suggest(query)).thenReturn(emptyResult);
+        when(searchService.suggest(null, query)).thenReturn(emptyResult);
 
-        SuggestResult result = searchController.suggestCourses(query);
+        SuggestResult result = searchController.suggestCourses(query, null);
 
         assertNotNull(result);
-        assertEquals(0L, result.getTotalHits());
-        assertTrue(result.getSuggestions().isEmpty());
+        assertEquals(0L, result.totalHits());
+        assertTrue(result.suggestions().isEmpty());
 
-        verify(searchService, times(1)).suggest(query);
+        verify(searchService, times(1)).suggest(null, query);
     }
 
     @Test
     void testSuggestCourses_WithSingleCharacterQuery() {
         String query = "m";
-        when(searchService.suggest(query)).thenReturn(sampleSuggestResult);
+        when(searchService.suggest(null, query)).thenReturn(sampleSuggestResult);
 
-        SuggestResult result = searchController.suggestCourses(query);
+        SuggestResult result = searchController.suggestCourses(query, null);
 
         assertNotNull(result);
-        assertEquals(2L, result.getTotalHits());
-        assertEquals(2, result.getSuggestions().size());
+        assertEquals(2L, result.totalHits());
+        assertEquals(2, result.suggestions().size());
 
-        verify(searchService, times(1)).suggest(query);
+        verify(searchService, times(1)).suggest(null, query);
     }
 
     @Test
     void testSuggestCourses_WithLongQuery() {
         String query = "mathematics for advanced students";
-        when(searchService.suggest(query)).thenReturn(sampleSuggestResult);
+        when(searchService.suggest(null, query)).thenReturn(sampleSuggestResult);
 
-        SuggestResult result = searchController.suggestCourses(query);
+        SuggestResult result = searchController.suggestCourses(query, null);
 
         assertNotNull(result);
-        assertEquals(2L, result.getTotalHits());
-        assertEquals(2, result.getSuggestions().size());
+        assertEquals(2L, result.totalHits());
+        assertEquals(2, result.suggestions().size());
 
-        verify(searchService, times(1)).suggest(query);
+        verify(searchService, times(1)).suggest(null, query);
     }
 
     @Test
     void testSuggestCourses_WithSpecialCharacters() {
         String query = "math@#$%";
-        when(searchService.suggest(query)).thenReturn(sampleSuggestResult);
+        when(searchService.suggest(null, query)).thenReturn(sampleSuggestResult);
 
-        SuggestResult result = searchController.suggestCourses(query);
+        SuggestResult result = searchController.suggestCourses(query, null);
 
         assertNotNull(result);
-        assertEquals(2L, result.getTotalHits());
-        assertEquals(2, result.getSuggestions().size());
+        assertEquals(2L, result.totalHits());
+        assertEquals(2, result.suggestions().size());
+
+        verify(searchService, times(1)).suggest(null, query);
+    }
+
+    @Test
+    void testInstantSearch() {
+        InstantResult instantResult = new InstantResult(List.of("Math for Beginners"), 1L,
+                List.of(CourseSummary.from(sampleCourse)));
+        when(instantSearchService.instant(null, "ma")).thenReturn(instantResult);
+
+        InstantResult result = searchController.instantSearch("ma", null);
+
+        assertEquals(instantResult, result);
+        verify(instantSearchService, times(1)).instant(null, "ma");
+        verifyNoInteractions(searchService);
+    }
 
-        verify(searchService, times(1)).suggest(query);
+    private static SearchQuery.SearchQueryBuilder query() {
+        return SearchQuery.builder().sort("nextSessionDate").page(0).size(10);
     }
 }
\ No newline at end of file
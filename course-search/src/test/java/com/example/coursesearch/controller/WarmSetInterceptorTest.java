@@ -0,0 +1,143 @@
+package com.example.coursesearch.controller;
+
+import com.example.coursesearch.service.CanonicalQuery;
+import com.example.coursesearch.service.QueryCanonicalizer;
+import com.example.coursesearch.service.SearchQuery;
+import com.example.coursesearch.service.SearchResult;
+import com.example.coursesearch.service.SearchService;
+import com.example.coursesearch.service.WarmPage;
+import com.example.coursesearch.service.WarmSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmSetInterceptorTest {
+
+    private static final byte[] JSON = "{\"total\":3,\"courses\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private final QueryCanonicalizer canonicalizer = new QueryCanonicalizer();
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private WarmSet warmSet;
+
+    @InjectMocks
+    private WarmSetInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/search");
+        response = new MockHttpServletResponse();
+        lenient().when(warmSet.isEnabled()).thenReturn(true);
+        lenient().when(searchService.canonicalize(any(SearchQuery.class)))
+                .thenAnswer(invocation -> canonicalizer.canonicalize(invocation.getArgument(0)));
+    }
+
+    @Test
+    void testPreHandle_WritesWarmPage() throws Exception {
+        request.setParameter("category", "Math");
+        request.setParameter("sort", "priceAsc");
+        String key = canonicalizer.canonicalize(SearchQuery.builder()
+                .category("Math").sort("priceAsc").page(0).size(10).build()).key();
+        when(warmSet.find(key)).thenReturn(new WarmPage(new SearchResult(3, List.of()), JSON));
+
+        assertFalse(interceptor.preHandle(request, response, new Object()));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertArrayEquals(JSON, response.getContentAsByteArray());
+        verify(warmSet).record(any(CanonicalQuery.class));
+    }
+
+    @Test
+    void testPreHandle_WarmPageCarriesValidators() throws Exception {
+        new ResponseValidators("W/\"1-key\"", "max-age=30").attachTo(request);
+        when(warmSet.find(anyString())).thenReturn(new WarmPage(new SearchResult(3, List.of()), JSON));
+
+        assertFalse(interceptor.preHandle(request, response, new Object()));
+
+        assertEquals("W/\"1-key\"", response.getHeader("ETag"));
+        assertEquals("max-age=30", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testPreHandle_BinaryEncodingsReachController() throws Exception {
+        request.addHeader("Accept", "application/cbor");
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        verify(warmSet, never()).find(anyString());
+    }
+
+    @Test
+    void testAcceptsJson() {
+        assertTrue(WarmSetInterceptor.acceptsJson(null));
+        assertTrue(WarmSetInterceptor.acceptsJson("*/*"));
+        assertTrue(WarmSetInterceptor.acceptsJson("application/json, text/plain;q=0.5"));
+        assertTrue(WarmSetInterceptor.acceptsJson("application/*"));
+        assertFalse(WarmSetInterceptor.acceptsJson("application/x-jackson-smile"));
+        assertFalse(WarmSetInterceptor.acceptsJson("application/json;q=0.5, application/cbor"));
+        assertFalse(WarmSetInterceptor.acceptsJson("application/json;q=0"));
+        assertFalse(WarmSetInterceptor.acceptsJson("text/html"));
+        assertFalse(WarmSetInterceptor.acceptsJson("not a type"));
+    }
+
+    @Test
+    void testPreHandle_ColdQueryContinues() throws Exception {
+        request.setParameter("category", "Music");
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        assertEquals(0, response.getContentLength());
+        verify(warmSet, never()).record(any(CanonicalQuery.class));
+    }
+
+    @Test
+    void testPreHandle_InvalidParametersReachController() throws Exception {
+        request.setParameter("size", "500");
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        request = new MockHttpServletRequest("GET", "/api/search");
+        request.setParameter("minAge", "ten");
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        request = new MockHttpServletRequest("GET", "/api/search");
+        request.setParameter("category", "Math", "Art");
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        request = new MockHttpServletRequest("GET", "/api/search");
+        request.setParameter("minAge", "10");
+        request.setParameter("maxAge", "5");
+        when(searchService.canonicalize(any(SearchQuery.class))).thenThrow(new IllegalArgumentException("minAge"));
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        verify(warmSet, never()).find(anyString());
+    }
+
+    @Test
+    void testPreHandle_DisabledWarmSet() throws Exception {
+        when(warmSet.isEnabled()).thenReturn(false);
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        verifyNoInteractions(searchService);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.coursesearch.document;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchDateConverter;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasicDateTimeConverterTest {
+
+    private final BasicDateTimeConverter converter = new BasicDateTimeConverter();
+    private final ElasticsearchDateConverter formatter = ElasticsearchDateConverter.of(DateFormat.basic_date_time);
+
+    @Test
+    void testRead_MatchesFormatter() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            ZonedDateTime date = ZonedDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000) * 1_000_000,
+                    ZoneOffset.UTC);
+            String text = formatter.format(date);
+
+            assertEquals(text, converter.write(date));
+            assertEquals(formatter.parse(text, ZonedDateTime.class), converter.read(text));
+        }
+    }
+
+    @Test
+    void testRead_OtherFormsFallBackToFormatter() {
+        String offset = formatter.format(ZonedDateTime.of(2025, 6, 10, 17, 0, 0, 0, ZoneId.of("+02:00")));
+
+        assertNull(BasicDateTimeConverter.parseUtc(offset));
+        assertEquals(formatter.parse(offset, ZonedDateTime.class), converter.read(offset));
+        assertNull(BasicDateTimeConverter.parseUtc("20250230T150000.000Z"));
+        assertNull(BasicDateTimeConverter.parseUtc("2025061OT150000.000Z"));
+        assertEquals(formatter.parse("20250230T150000.000Z", ZonedDateTime.class), converter.read("20250230T150000.000Z"));
+    }
+
+    @Test
+    void testCourseDocument_UsesConverter() {
+        MappingElasticsearchConverter mapping = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        mapping.afterPropertiesSet();
+        CourseDocument course = new CourseDocument();
+        course.setId("1");
+        course.setNextSessionDate(ZonedDateTime.parse("2025-06-10T15:00:00Z"));
+        Document source = Document.create();
+
+        mapping.write(course, source);
+
+        assertEquals("20250610T150000.000Z", source.get("nextSessionDate"));
+        assertEquals(course.getNextSessionDate(), mapping.read(CourseDocument.class, source).getNextSessionDate());
+    }
+}
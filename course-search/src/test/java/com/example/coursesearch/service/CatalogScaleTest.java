@@ -0,0 +1,269 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ingest rate, heap footprint, query latency and throughput per core count of the in-process
+ * backend per catalog size.
+ * Excluded from the default build; run with {@code ./mvnw test -Pscale} and pick sizes with
+ * {@code -Dscale.sizes=10000,1000000}.
+ * <p>
+ * Courses are streamed from the generator into the index one segment at a time, so only the
+ * index itself has to fit in the heap ({@code -Dscale.heap}). Each size's ingest rate, bytes
+ * per course and p99 latencies are written to {@code target/scale-report.properties} and
+ * compared with {@code scale-baseline.properties} from the test resources: the test fails
+ * when a timing is more than {@code scale.tolerance} (default 50%) worse than its baseline,
+ * with 5 ms of absolute slack on latencies, or bytes per course more than 20% worse. Sizes
+ * without a baseline are only reported.
+ */
+@Tag("scale")
+class CatalogScaleTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogScaleTest.class);
+
+    private static final long SEED = 20250601L;
+    private static final int QUERIES = 200;
+    private static final int DICTIONARY_BATCH = 100_000;
+    private static final double BYTES_TOLERANCE = 0.2;
+    // A single GC pause or JIT compilation moves a small catalog's p99 by more than any relative tolerance
+    private static final double LATENCY_SLACK_MS = 5.0;
+
+    static LongStream sizes() {
+        return Arrays.stream(System.getProperty("scale.sizes", "10000,100000,1000000").split(","))
+                .map(String::trim)
+                .filter(size -> !size.isEmpty())
+                .mapToLong(Long::parseLong);
+    }
+
+    @ParameterizedTest(name = "{0} courses")
+    @MethodSource("sizes")
+    void testCatalogAtScale(long size) throws IOException {
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(SEED);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Map<String, Double> measured = new LinkedHashMap<>();
+
+        long start = System.nanoTime();
+        long mathCourses = generator.stream(size).filter(course -> "Math".equals(course.getCategory())).count();
+        double generateSeconds = seconds(start);
+
+        LocalSearchIndex index = new LocalSearchIndex("local", 8192, 0, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            long baseline = usedHeap(memory);
+            start = System.nanoTime();
+            index.load(generator.stream(size).iterator());
+            double ingestSeconds = seconds(start);
+            long indexBytes = usedHeap(memory) - baseline;
+            // Includes generating the courses, which the first pass times on its own
+            measured.put("ingestPerSecond", size / ingestSeconds);
+            measured.put("bytesPerCourse", size == 0 ? 0.0 : (double) indexBytes / size);
+
+            SpellingDictionary dictionary = new SpellingDictionary(false, 0.8, 0);
+            start = System.nanoTime();
+            Iterator<CourseDocument> courses = generator.stream(size).iterator();
+            List<CourseDocument> batch = new ArrayList<>(DICTIONARY_BATCH);
+            while (courses.hasNext()) {
+                batch.add(courses.next());
+                if (batch.size() == DICTIONARY_BATCH || !courses.hasNext()) {
+                    dictionary.add(batch);
+                    batch.clear();
+                }
+            }
+            dictionary.rebuild();
+            double dictionarySeconds = seconds(start);
+
+            SearchResult math = index.search(query().category("Math").build());
+            assertEquals(mathCourses, math.total());
+            assertTrue(math.courses().stream().allMatch(course -> "Math".equals(course.category())));
+
+            logger.info("{} courses: generate {}/s, ingest {}/s, spelling {} s, index {} MB ({} B/course)",
+                    String.format("%,d", size), String.format("%,.0f", size / generateSeconds),
+                    String.format("%,.0f", measured.get("ingestPerSecond")), String.format("%.2f", dictionarySeconds),
+                    indexBytes >> 20, String.format("%,.0f", measured.get("bytesPerCourse")));
+
+            latency(measured, "categoryPrice", () -> index.search(query().category("Science").sort("priceAsc").build()));
+            latency(measured, "keyword", () -> index.search(query().keyword("robotics").build()));
+            latency(measured, "agePrice", () -> index.search(query().minAge(8).maxAge(10).minPrice(20.0).maxPrice(100.0).build()));
+            latency(measured, "geoRadius", () -> index.search(query().lat(12.9716).lon(77.5946).radiusKm(10.0)
+                    .sort("distance").build()));
+            latency(measured, "relevance", () -> index.search(query().keyword("python workshop").sort("relevance").build()));
+            latency(measured, "deepPage", () -> index.search(query().page(90).size(100).build()));
+            latency(measured, "suggest", () -> index.titlePrefixSearch(null, List.of("pian"), 10));
+        } finally {
+            index.shutdown();
+        }
+
+        report(size, measured);
+        assertWithinBaseline(size, measured);
+    }
+
+    /**
+     * Queries per second of one client running a mix of scan-heavy queries back to back, for
+     * every pool parallelism in {@code scale.cores} (default: powers of two up to the
+     * available processors). Only reported, as the numbers depend on the machine's cores.
+     */
+    @ParameterizedTest(name = "{0} courses")
+    @MethodSource("sizes")
+    void testThroughputByCores(long size) throws IOException {
+        List<SearchQuery> mix = List.of(
+                query().category("Science").sort("priceAsc").build(),
+                query().keyword("robotics").build(),
+                query().lat(12.9716).lon(77.5946).radiusKm(10.0).sort("distance").build(),
+                query().keyword("python workshop").sort("relevance").build());
+        Map<String, Double> measured = new LinkedHashMap<>();
+        List<Integer> parallelisms = cores();
+        double first = 0;
+        for (int cores : parallelisms) {
+            LocalSearchIndex index = new LocalSearchIndex("local", 8192, cores, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+            try {
+                index.load(new SyntheticCatalogGenerator(SEED).stream(size).iterator());
+                double qps = throughput(index, mix);
+                first = first == 0 ? qps : first;
+                measured.put("qps.cores" + cores, qps);
+                logger.info("{} courses, parallelism {}: {} queries/s, {}x of parallelism {}", String.format("%,d", size),
+                        cores, String.format("%,.1f", qps), String.format("%.2f", qps / first), parallelisms.get(0));
+                assertTrue(qps > 0);
+            } finally {
+                index.shutdown();
+            }
+        }
+        report(size, measured);
+    }
+
+    private static List<Integer> cores() {
+        String configured = System.getProperty("scale.cores", "");
+        if (!configured.isBlank()) {
+            return Arrays.stream(configured.split(",")).map(String::trim).map(Integer::parseInt).toList();
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> cores = new ArrayList<>();
+        for (int n = 1; n < processors; n *= 2) {
+            cores.add(n);
+        }
+        cores.add(processors);
+        return cores;
+    }
+
+    private static double throughput(LocalSearchIndex index, List<SearchQuery> mix) {
+        long seconds = Long.getLong("scale.throughput-seconds", 5);
+        for (int i = 0; i < QUERIES / 10; i++) {
+            index.search(mix.get(i % mix.size()));
+        }
+        long queries = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            index.search(mix.get((int) (queries % mix.size())));
+            queries++;
+        }
+        return queries / seconds(start);
+    }
+
+    private static void latency(Map<String, Double> measured, String name, Supplier<SearchResult> search) {
+        for (int i = 0; i < QUERIES; i++) {
+            search.get();
+        }
+        long[] latencies = new long[QUERIES];
+        long total = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long began = System.nanoTime();
+            total += search.get().total();
+            latencies[i] = System.nanoTime() - began;
+        }
+        Arrays.sort(latencies);
+        double p99 = latencies[(int) Math.ceil(QUERIES * 0.99) - 1] / 1e6;
+        measured.put("p99Ms." + name, p99);
+        logger.info("{}: p50 {} ms, p99 {} ms ({} hits)", name, String.format("%.3f", latencies[QUERIES / 2] / 1e6),
+                String.format("%.3f", p99), total / QUERIES);
+    }
+
+    private static void report(long size, Map<String, Double> measured) throws IOException {
+        Path file = Path.of(System.getProperty("scale.report", "target/scale-report.properties"));
+        Properties report = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                report.load(reader);
+            }
+        }
+        measured.forEach((key, value) -> report.setProperty(size + "." + key, String.format("%.3f", value)));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            report.store(writer, "CatalogScaleTest");
+        }
+    }
+
+    private static void assertWithinBaseline(long size, Map<String, Double> measured) throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = CatalogScaleTest.class.getResourceAsStream("/scale-baseline.properties")) {
+            if (in != null) {
+                baseline.load(in);
+            }
+        }
+        double tolerance = Double.parseDouble(System.getProperty("scale.tolerance", "0.5"));
+        List<String> regressions = new ArrayList<>();
+        measured.forEach((key, value) -> {
+            String expected = baseline.getProperty(size + "." + key);
+            if (expected == null) {
+                return;
+            }
+            double base = Double.parseDouble(expected);
+            boolean regressed;
+            if (key.equals("ingestPerSecond")) {
+                regressed = value < base / (1 + tolerance);
+            } else if (key.equals("bytesPerCourse")) {
+                regressed = value > base * (1 + BYTES_TOLERANCE);
+            } else {
+                regressed = value > base * (1 + tolerance) + LATENCY_SLACK_MS;
+            }
+            if (regressed) {
+                regressions.add(String.format("%s: %.3f against baseline %.3f", key, value, base));
+            }
+        });
+        if (baseline.stringPropertyNames().stream().noneMatch(key -> key.startsWith(size + "."))) {
+            logger.info("No baseline for {} courses; see target/scale-report.properties", size);
+        }
+        assertTrue(regressions.isEmpty(), size + " courses regressed: " + regressions);
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            samples.add(memory.getHeapMemoryUsage().getUsed());
+        }
+        return samples.stream().mapToLong(Long::longValue).min().orElseThrow();
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static SearchQuery.SearchQueryBuilder query() {
+        return SearchQuery.builder().sort("nextSessionDate").page(0).size(10);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.config.ElasticsearchConfig;
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseHitReaderTest {
+
+    private final CourseHitReader reader = new CourseHitReader();
+
+    private MappingElasticsearchConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchCustomConversions conversions = new ElasticsearchConfig().elasticsearchCustomConversions();
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void testRead_MatchesHitOfTheMappedEntity() {
+        for (CourseDocument course : new SyntheticCatalogGenerator(7L).stream(500).toList()) {
+            course.setPopularity(course.getId().hashCode() % 3 == 0 ? null : 2.5);
+            Document source = Document.create();
+            converter.write(course, source);
+
+            assertEquals(CourseHit.from(converter.read(CourseDocument.class, source)), converter.read(CourseHit.class, source));
+            assertEquals(CourseHit.from(course), converter.read(CourseHit.class, source));
+        }
+    }
+
+    @Test
+    void testRead_PartialSourceAndDocumentId() {
+        Document source = Document.from(new HashMap<>(Map.of("title", "Math for Beginners", "price", 200,
+                "nextSessionDate", "20250610T150000.250Z")));
+        source.setId("42");
+
+        CourseHit hit = reader.convert(source);
+
+        assertEquals("42", hit.id());
+        assertEquals("Math for Beginners", hit.title());
+        assertEquals(200.0, hit.price());
+        assertEquals("2025-06-10T15:00:00.250Z", hit.nextSessionDate());
+        assertNull(hit.minAge());
+        assertNull(hit.location());
+        assertNull(hit.popularity());
+    }
+
+    @Test
+    void testRead_GeoPointForms() {
+        GeoPoint expected = new GeoPoint(12.97, 77.59);
+
+        assertEquals(expected, reader.convert(Map.of("location", Map.of("lat", 12.97, "lon", 77.59))).location());
+        assertEquals(expected, reader.convert(Map.of("location", "12.97, 77.59")).location());
+        assertEquals(expected, reader.convert(Map.of("location", List.of(77.59, 12.97))).location());
+        assertNull(reader.convert(Map.of("location", "u4pruydqqvj")).location());
+    }
+}
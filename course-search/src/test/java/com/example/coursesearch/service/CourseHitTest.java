@@ -0,0 +1,35 @@
+package com.example.coursesearch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseHitTest {
+
+    @Test
+    void testFormatDate_MatchesIsoInstant() {
+        Random random = new Random(11);
+        int[] nanos = {0, 1, 999_999_999, 120_000_000, 123_456_000, 123_456_789};
+        for (int i = 0; i < 10_000; i++) {
+            ZonedDateTime date = ZonedDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), nanos[i % nanos.length], ZoneOffset.UTC);
+
+            assertEquals(DateTimeFormatter.ISO_INSTANT.format(date.toInstant()), CourseHit.formatDate(date));
+        }
+    }
+
+    @Test
+    void testFormatDate_ConvertsOtherZonesToUtc() {
+        ZonedDateTime date = ZonedDateTime.of(2025, 6, 10, 17, 0, 0, 0, ZoneId.of("Europe/Paris"));
+
+        assertEquals("2025-06-10T15:00:00Z", CourseHit.formatDate(date));
+        assertEquals("2025-06-10T15:00:00Z", CourseHit.formatDate(ZonedDateTime.parse("2025-06-10T15:00:00Z")));
+        assertNull(CourseHit.formatDate(null));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import com.example.coursesearch.repository.CourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseIndexServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private SpellingDictionary spellingDictionary;
+
+    private final IndexGeneration indexGeneration = new IndexGeneration();
+    private final LocalSearchIndex localSearchIndex =
+            new LocalSearchIndex("local", 8, 1, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+
+    private CourseIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CourseIndexService(courseRepository, new ObjectMapper().findAndRegisterModules(),
+                elasticsearchOperations, localSearchIndex, new TenantIndexResolver(List.of()), indexGeneration,
+                spellingDictionary);
+        when(elasticsearchOperations.indexOps(CourseDocument.class)).thenReturn(indexOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        localSearchIndex.shutdown();
+    }
+
+    @Test
+    void testIndexSampleCourses_KeepsExistingCatalog() {
+        CourseDocument written = new CourseDocument();
+        written.setId("written-after-seeding");
+        written.setTitle("Chess Club");
+        Document mapping = Document.create();
+        when(indexOperations.exists()).thenReturn(true);
+        when(indexOperations.createMapping()).thenReturn(mapping);
+        when(elasticsearchOperations.count(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+                .thenReturn(1L);
+        stubIndexedCourses(written);
+
+        service.indexSampleCourses();
+
+        verify(indexOperations, never()).delete();
+        verify(indexOperations, never()).create();
+        verify(indexOperations).putMapping(mapping);
+        verify(courseRepository, never()).saveAll(anyList());
+        verify(spellingDictionary).add(List.of(written));
+        SearchResult all = localSearchIndex.search(SearchQuery.builder().sort("nextSessionDate").page(0).size(10).build());
+        assertEquals(List.of("written-after-seeding"), all.courses().stream().map(CourseHit::id).toList());
+        assertEquals(1L, indexGeneration.current());
+    }
+
+    @Test
+    void testIndexSampleCourses_StreamsOnlyDictionaryFieldsWithoutLocalIndex() {
+        CourseDocument written = new CourseDocument();
+        written.setId("written-after-seeding");
+        written.setTitle("Chess Club");
+        LocalSearchIndex disabled = new LocalSearchIndex("elasticsearch", 8, 1, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            service = new CourseIndexService(courseRepository, new ObjectMapper().findAndRegisterModules(),
+                    elasticsearchOperations, disabled, new TenantIndexResolver(List.of()), indexGeneration,
+                    spellingDictionary);
+            when(indexOperations.exists()).thenReturn(true);
+            when(elasticsearchOperations.count(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+                    .thenReturn(1L);
+            stubIndexedCourses(written);
+
+            service.indexSampleCourses();
+
+            verify(elasticsearchOperations).searchForStream(argThat(query -> query.getSourceFilter() != null
+                    && List.of(query.getSourceFilter().getIncludes()).equals(List.of("tenantId", "title", "description"))),
+                    eq(CourseDocument.class), any(IndexCoordinates.class));
+            verify(spellingDictionary).add(List.of(written));
+            verify(spellingDictionary).rebuild();
+            assertEquals(1L, indexGeneration.current());
+        } finally {
+            disabled.shutdown();
+        }
+    }
+
+    @Test
+    void testIndexSampleCourses_SeedsEmptyCatalog() {
+        when(indexOperations.exists()).thenReturn(false);
+        when(elasticsearchOperations.count(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+                .thenReturn(0L);
+
+        service.indexSampleCourses();
+
+        verify(indexOperations).create();
+        verify(indexOperations, never()).delete();
+        verify(courseRepository).saveAll(argThat(courses -> ((List<?>) courses).size() > 10));
+        assertTrue(localSearchIndex.search(SearchQuery.builder().sort("nextSessionDate").page(0).size(10).build())
+                .total() > 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubIndexedCourses(CourseDocument... courses) {
+        List<SearchHit<CourseDocument>> hitList = new ArrayList<>();
+        for (CourseDocument course : courses) {
+            SearchHit<CourseDocument> hit = mock(SearchHit.class);
+            when(hit.getContent()).thenReturn(course);
+            hitList.add(hit);
+        }
+        Iterator<SearchHit<CourseDocument>> hits = hitList.iterator();
+        SearchHitsIterator<CourseDocument> iterator = mock(SearchHitsIterator.class);
+        when(iterator.hasNext()).thenAnswer(invocation -> hits.hasNext());
+        when(iterator.next()).thenAnswer(invocation -> hits.next());
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(CourseDocument.class),
+                any(IndexCoordinates.class))).thenReturn(iterator);
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseWriteServiceTest {
+
+    private static final IndexCoordinates SHARED = IndexCoordinates.of("courses");
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private LocalSearchIndex localSearchIndex;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private SearchHits<CourseDocument> existingCopies;
+
+    @TempDir
+    private Path dataDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final IndexGeneration indexGeneration = new IndexGeneration();
+    private final List<CourseWriteService> services = new ArrayList<>();
+
+    private final AtomicLong generationAtRefresh = new AtomicLong(-1);
+
+    private Path walPath;
+
+    @BeforeEach
+    void setUp() {
+        walPath = dataDir.resolve("course-writes.wal");
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        lenient().when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter);
+        lenient().when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOperations);
+        lenient().when(elasticsearchOperations.idsQuery(anyList())).thenReturn(mock(Query.class));
+        lenient().when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+                .thenReturn(existingCopies);
+        lenient().when(existingCopies.getSearchHits()).thenReturn(List.of());
+        lenient().doAnswer(invocation -> {
+            generationAtRefresh.set(indexGeneration.current());
+            return null;
+        }).when(indexOperations).refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(CourseWriteService::shutdown);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_CoalescesWritesToTheSameId() throws Exception {
+        CourseWriteService service = newService(10);
+        service.upsert("1", course("Math v1"));
+        service.upsert("2", course("Science"));
+        service.upsert("1", course("Math v2"));
+
+        service.start();
+
+        ArgumentCaptor<List<UpdateQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, timeout(2000)).bulkUpdate(captor.capture(), eq(SHARED));
+        List<UpdateQuery> saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals("1", saved.get(0).getId());
+        Map<String, Object> source = (Map<String, Object>) saved.get(0).getParams().get("course");
+        assertEquals("Math v2", source.get("title"));
+        assertEquals("Math v2", source.get("titleSuggest"));
+        assertEquals(source, saved.get(0).getUpsert());
+        assertEquals(CourseWriteService.REPLACE_SCRIPT, saved.get(0).getScript());
+        assertEquals("2", saved.get(1).getId());
+        waitFor(() -> indexGeneration.current() == 1L);
+    }
+
+    @Test
+    void testFlush_DeleteAfterUpsertOnlyDeletes() throws Exception {
+        Query idsQuery = mock(Query.class);
+        when(elasticsearchOperations.idsQuery(List.of("1"))).thenReturn(idsQuery);
+        CourseWriteService service = newService(10);
+        service.upsert("1", course("Math"));
+        service.delete("1");
+
+        service.start();
+
+        verify(elasticsearchOperations, timeout(2000)).delete(any(DeleteQuery.class), eq(CourseDocument.class),
+                eq(IndexCoordinates.of("courses", "courses-bigco")));
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+        verifyRefreshedBeforeGenerationAdvanced(IndexCoordinates.of("courses", "courses-bigco"));
+    }
+
+    @Test
+    void testFlush_DedicatedTenantGoesToItsIndex() throws Exception {
+        CourseWriteService service = newService(10);
+        CourseDocument course = course("Robotics");
+        course.setTenantId("bigco");
+        service.upsert("7", course);
+
+        service.start();
+
+        verify(elasticsearchOperations, timeout(2000)).bulkUpdate(argThat(updates -> updates.size() == 1
+                && updates.get(0).getId().equals("7") && "bigco".equals(updates.get(0).getRouting())),
+                eq(IndexCoordinates.of("courses-bigco")));
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), eq(SHARED));
+        verifyRefreshedBeforeGenerationAdvanced(IndexCoordinates.of("courses-bigco"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_TenantChangeDeletesOldCopyAndKeepsItsPopularity() throws Exception {
+        CourseDocument existing = course("7", "Robotics");
+        existing.setPopularity(4.0);
+        SearchHit<CourseDocument> hit = mock(SearchHit.class);
+        when(hit.getId()).thenReturn("7");
+        when(hit.getContent()).thenReturn(existing);
+        when(hit.getIndex()).thenReturn("courses");
+        when(existingCopies.getSearchHits()).thenReturn(List.of(hit));
+        CourseWriteService service = newService(10);
+        CourseDocument moved = course("Robotics");
+        moved.setTenantId("bigco");
+        service.upsert("7", moved);
+
+        service.start();
+
+        ArgumentCaptor<List<UpdateQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, timeout(2000)).bulkUpdate(captor.capture(), eq(IndexCoordinates.of("courses-bigco")));
+        Map<String, Object> upsert = captor.getValue().get(0).getUpsert();
+        assertEquals(4.0, upsert.get("popularity"));
+        assertEquals("bigco", upsert.get("tenantId"));
+        verify(elasticsearchOperations).delete(existing, SHARED);
+        verify(elasticsearchOperations, timeout(2000)).indexOps(SHARED);
+        verify(elasticsearchOperations, timeout(2000)).indexOps(IndexCoordinates.of("courses-bigco"));
+        waitFor(() -> indexGeneration.current() == 1L);
+    }
+
+    @Test
+    void testFlush_SameTenantUpsertReplacesInPlace() throws Exception {
+        CourseDocument existing = course("7", "Robotics");
+        existing.setTenantId("bigco");
+        SearchHit<CourseDocument> hit = mock(SearchHit.class);
+        when(hit.getId()).thenReturn("7");
+        when(hit.getContent()).thenReturn(existing);
+        when(existingCopies.getSearchHits()).thenReturn(List.of(hit));
+        CourseWriteService service = newService(10);
+        CourseDocument renamed = course("Robotics II");
+        renamed.setTenantId("bigco");
+        service.upsert("7", renamed);
+
+        service.start();
+
+        verify(elasticsearchOperations, timeout(2000)).bulkUpdate(anyList(), eq(IndexCoordinates.of("courses-bigco")));
+        waitFor(() -> indexGeneration.current() == 1L);
+        verify(elasticsearchOperations, never()).delete(any(Object.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testFlush_RefreshesSharedIndexAfterUpserts() throws Exception {
+        CourseWriteService service = newService(10);
+        service.upsert("1", course("Math"));
+
+        service.start();
+
+        verifyRefreshedBeforeGenerationAdvanced(SHARED);
+    }
+
+    @Test
+    void testStart_ReplaysWriteAheadLogAndTruncatesIt() throws Exception {
+        CourseWriteService crashed = newService(10);
+        crashed.upsert("1", course("Math"));
+        crashed.upsert("2", course("Science"));
+        assertEquals(2, logLines());
+
+        CourseWriteService restarted = newService(10);
+        restarted.start();
+
+        verify(elasticsearchOperations, timeout(2000)).bulkUpdate(argThat(updates -> updates.size() == 2), eq(SHARED));
+        waitFor(() -> logLines() == 0 && logSegments().size() == 1);
+    }
+
+    @Test
+    void testFlush_CheckpointsRotatedSegmentsUnderSteadyTraffic() throws Exception {
+        CourseWriteService service = newService(10, localSearchIndex, 1);
+        service.start();
+
+        for (int i = 0; i < 30; i++) {
+            service.upsert(String.valueOf(i), course("Course " + i));
+            Thread.sleep(5);
+        }
+
+        verify(elasticsearchOperations, timeout(2000).atLeast(2)).bulkUpdate(anyList(), eq(SHARED));
+        waitFor(() -> logLines() == 0 && logSegments().size() == 1);
+    }
+
+    @Test
+    void testStart_SkipsTornLastLogEntry() throws Exception {
+        Files.writeString(dataDir.resolve("course-writes.wal.000001"),
+                objectMapper.writeValueAsString(CourseWrite.delete("1")) + "\n{\"op\":\"UPS");
+        when(elasticsearchOperations.idsQuery(anyList())).thenReturn(mock(Query.class));
+
+        CourseWriteService service = newService(10);
+        service.delete("2");
+        service.start();
+
+        verify(elasticsearchOperations, timeout(2000)).idsQuery(List.of("1"));
+        verify(elasticsearchOperations, timeout(2000)).idsQuery(List.of("2"));
+    }
+
+    @Test
+    void testFlush_RetriesAfterFailure() {
+        doThrow(new RuntimeException("cluster unavailable"))
+                .doNothing()
+                .when(elasticsearchOperations).bulkUpdate(anyList(), eq(SHARED));
+        CourseWriteService service = newService(10);
+        service.upsert("1", course("Math"));
+
+        service.start();
+
+        verify(elasticsearchOperations, timeout(2000).times(2)).bulkUpdate(anyList(), eq(SHARED));
+    }
+
+    @Test
+    void testAccept_RejectsWritesBeyondQueueCapacity() {
+        CourseWriteService service = newService(2);
+        service.upsert("1", course("Math"));
+
+        assertThrows(WriteQueueFullException.class, () -> service.accept(List.of(
+                CourseWrite.upsert("2", course("Science")),
+                CourseWrite.upsert("3", course("Art")))));
+    }
+
+    @Test
+    void testAccept_RejectsUpsertWithoutCourse() {
+        CourseWriteService service = newService(10);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.accept(List.of(new CourseWrite(CourseWrite.Op.UPSERT, "1", null))));
+    }
+
+    @Test
+    void testFlush_UpdatesLocalIndexWhenEnabled() throws Exception {
+        LocalSearchIndex local = new LocalSearchIndex("local", 8, 1, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            local.load(List.of(course("1", "Math"), course("2", "Science")));
+            CourseWriteService service = newService(10, local);
+            service.upsert("3", course("Art"));
+            service.delete("1");
+            when(elasticsearchOperations.idsQuery(List.of("1"))).thenReturn(mock(Query.class));
+
+            service.start();
+
+            SearchQuery all = SearchQuery.builder().sort("nextSessionDate").page(0).size(10).build();
+            waitFor(() -> local.search(all).total() == 2 && local.search(all).courses().stream()
+                    .anyMatch(course -> course.id().equals("3")));
+            assertEquals(List.of("2", "3"), local.search(all).courses().stream().map(CourseHit::id).toList());
+        } finally {
+            local.shutdown();
+        }
+    }
+
+    private void verifyRefreshedBeforeGenerationAdvanced(IndexCoordinates index) throws Exception {
+        verify(elasticsearchOperations, timeout(2000)).indexOps(index);
+        verify(indexOperations, timeout(2000)).refresh();
+        waitFor(() -> indexGeneration.current() == 1L);
+        assertEquals(0L, generationAtRefresh.get());
+    }
+
+    private CourseWriteService newService(int queueCapacity) {
+        return newService(queueCapacity, localSearchIndex);
+    }
+
+    private CourseWriteService newService(int queueCapacity, LocalSearchIndex index) {
+        return newService(queueCapacity, index, 1 << 20);
+    }
+
+    private CourseWriteService newService(int queueCapacity, LocalSearchIndex index, long segmentBytes) {
+        CourseWriteService service = new CourseWriteService(elasticsearchOperations,
+                index, new TenantIndexResolver(List.of("bigco")), indexGeneration,
+                new SpellingDictionary(false, 0.8, 0), objectMapper,
+                queueCapacity, 100, 20, walPath.toString(), segmentBytes);
+        services.add(service);
+        return service;
+    }
+
+    private List<Path> logSegments() throws Exception {
+        try (Stream<Path> files = Files.list(dataDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("course-writes.wal.")).toList();
+        }
+    }
+
+    private long logLines() throws Exception {
+        long lines = 0;
+        for (Path segment : logSegments()) {
+            try {
+                lines += Files.readAllLines(segment).size();
+            } catch (NoSuchFileException e) {
+                // checkpointed by the flusher after it was listed
+            }
+        }
+        return lines;
+    }
+
+    private static CourseDocument course(String id, String title) {
+        CourseDocument course = course(title);
+        course.setId(id);
+        return course;
+    }
+
+    private static CourseDocument course(String title) {
+        CourseDocument course = new CourseDocument();
+        course.setTitle(title);
+        course.setNextSessionDate(ZonedDateTime.parse("2025-06-10T15:00:00Z"));
+        return course;
+    }
+
+    private static void waitFor(Check check) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!check.done()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean done() throws Exception;
+    }
+}
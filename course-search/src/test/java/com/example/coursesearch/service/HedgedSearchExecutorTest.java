@@ -0,0 +1,231 @@
+package com.example.coursesearch.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedSearchExecutorTest {
+
+    private static final String AFFINITY = "5f3a";
+    private static final String HEDGE = HedgedSearchExecutor.hedgePreference(AFFINITY);
+
+    private HedgedSearchExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testExecute_NoHedgeBeforeEnoughSamples() {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 100, 50, 8);
+        DelayingReplicas replicas = new DelayingReplicas(50, 0);
+
+        assertEquals(AFFINITY, (executor.execute(AFFINITY, replicas)));
+        assertEquals(1, replicas.calls.size());
+    }
+
+    @Test
+    void testExecute_SlowPrimaryIsHedgedAndCancelled() throws Exception {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 20, 20, 8);
+        warmUp(executor, 2);
+        DelayingReplicas replicas = new DelayingReplicas(5_000, 0);
+
+        long start = System.nanoTime();
+        String winner = executor.execute(AFFINITY, replicas);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(HEDGE, (winner));
+        assertTrue(elapsedMs < 1_000, "hedge should answer long before the slow primary");
+        assertEquals(2, replicas.calls.size());
+        assertNotEquals(replicas.calls.get(0), replicas.calls.get(1));
+        assertTrue(replicas.interrupted.await(1, TimeUnit.SECONDS), "losing attempt should be cancelled");
+    }
+
+    @Test
+    void testExecute_FastPrimaryIsNotHedged() {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 20, 20, 8);
+        warmUp(executor, 50);
+        DelayingReplicas replicas = new DelayingReplicas(0, 0);
+
+        assertEquals(AFFINITY, (executor.execute(AFFINITY, replicas)));
+        assertEquals(1, replicas.calls.size());
+    }
+
+    @Test
+    void testExecute_BudgetLimitsHedges() {
+        executor = new HedgedSearchExecutor(true, 0.25, 0, 20, 20, 8);
+        warmUp(executor, 1);
+        DelayingReplicas replicas = new DelayingReplicas(20, 0);
+
+        for (int i = 0; i < 40; i++) {
+            executor.execute(AFFINITY, replicas);
+        }
+
+        // 60 requests in total earn 15 hedges; the 20 warm-up requests may have spent some
+        long hedges = replicas.calls.stream().filter(HEDGE::equals).count();
+        assertTrue(hedges >= 5 && hedges <= 15, "expected at most a quarter of 60 requests hedged, got " + hedges);
+    }
+
+    @Test
+    void testExecute_FailedPrimaryFallsBackToHedge() {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 20, 20, 8);
+        warmUp(executor, 2);
+
+        String result = executor.execute(AFFINITY, preference -> {
+            if (preference.equals(AFFINITY)) {
+                sleep(50);
+                throw new IllegalStateException("replica failed");
+            }
+            return preference;
+        });
+
+        assertEquals(HEDGE, (result));
+    }
+
+    @Test
+    void testExecute_FailureWithoutHedgeIsRethrown() {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 20, 20, 8);
+
+        assertThrows(IllegalStateException.class, () -> executor.execute(AFFINITY, preference -> {
+            throw new IllegalStateException("replica failed");
+        }));
+    }
+
+    @Test
+    void testExecute_CancelledLoserLatencyIsRecorded() {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 100, 20, 8);
+        warmUp(executor, 2);
+        DelayingReplicas replicas = new DelayingReplicas(5_000, 50);
+
+        executor.execute(AFFINITY, replicas);
+
+        assertEquals(22, executor.latencies().count(), "the winner and the cancelled loser are both recorded");
+    }
+
+    @Test
+    void testExecute_SaturatedPoolSearchesWithoutHedgeOnCallingThread() throws Exception {
+        executor = new HedgedSearchExecutor(true, 1.0, 0, 20, 20, 1);
+        warmUp(executor, 2);
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread occupant = new Thread(() -> executor.execute(AFFINITY, preference -> {
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return preference;
+        }));
+        occupant.start();
+        assertTrue(busy.await(1, TimeUnit.SECONDS));
+
+        List<String> threads = new CopyOnWriteArrayList<>();
+        String result = executor.execute(AFFINITY, preference -> {
+            threads.add(Thread.currentThread().getName());
+            sleep(50);
+            return preference;
+        });
+
+        assertEquals(AFFINITY, result);
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        release.countDown();
+        occupant.join(1_000);
+    }
+
+    @Test
+    void testHedgePreference_DiffersInHashParity() {
+        for (int i = 0; i < 1_000; i++) {
+            String preference = Integer.toHexString(i * 7919);
+            String hedge = HedgedSearchExecutor.hedgePreference(preference);
+
+            assertNotEquals(preference, hedge);
+            assertFalse(hedge.startsWith("_"));
+            assertNotEquals(HedgedSearchExecutor.Murmur3.hash(preference) & 1, HedgedSearchExecutor.Murmur3.hash(hedge) & 1);
+            assertEquals(hedge, HedgedSearchExecutor.hedgePreference(preference));
+        }
+    }
+
+    @Test
+    void testMurmur3_KnownValues() {
+        assertEquals(0, HedgedSearchExecutor.Murmur3.hash(new byte[0]));
+        assertEquals(0x248bfa47, HedgedSearchExecutor.Murmur3.hash("hello".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0xb3dd93fa, HedgedSearchExecutor.Murmur3.hash("abc".getBytes(StandardCharsets.US_ASCII)));
+        byte[] utf16 = {'a', 0, 'b', 0, 'c', 0};
+        assertEquals(HedgedSearchExecutor.Murmur3.hash(utf16), HedgedSearchExecutor.Murmur3.hash("abc"));
+    }
+
+    @Test
+    void testLatencyWindow_P95() {
+        HedgedSearchExecutor.LatencyWindow window = new HedgedSearchExecutor.LatencyWindow(64);
+        for (int i = 1; i <= 64; i++) {
+            window.record(i);
+        }
+        assertEquals(64, window.count());
+        assertEquals(61, window.p95());
+
+        for (int i = 0; i < 64; i++) {
+            window.record(1000);
+        }
+        assertEquals(64, window.count());
+        assertEquals(1000, window.p95());
+    }
+
+    private static void warmUp(HedgedSearchExecutor executor, long latencyMs) {
+        for (int i = 0; i < 20; i++) {
+            executor.execute(AFFINITY, preference -> {
+                sleep(latencyMs);
+                return preference;
+            });
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stand-in for two shard copies: the first attempt of a request hits the slow copy.
+     */
+    private static final class DelayingReplicas implements Function<String, String> {
+
+        private final Map<String, Long> delays = new ConcurrentHashMap<>();
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        DelayingReplicas(long primaryDelayMs, long hedgeDelayMs) {
+            delays.put(AFFINITY, primaryDelayMs);
+            delays.put(HEDGE, hedgeDelayMs);
+        }
+
+        @Override
+        public String apply(String preference) {
+            calls.add(preference);
+            try {
+                Thread.sleep(delays.get(preference));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("cancelled", e);
+            }
+            return preference;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.suggest.response.CompletionSuggestion;
+import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstantSearchServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private LocalSearchIndex localSearchIndex;
+
+    @Mock
+    private SearchHits<CourseHit> searchHits;
+
+    private final IndexGeneration indexGeneration = new IndexGeneration();
+
+    private InstantSearchService instantSearchService;
+
+    @BeforeEach
+    void setUp() {
+        instantSearchService = new InstantSearchService(elasticsearchOperations, localSearchIndex,
+                new TenantIndexResolver(List.of()), indexGeneration, 200, 100, 60);
+    }
+
+    @Test
+    void testInstant_ReturnsSuggestionsAndTopHits() {
+        stubOptions(course("1", "Math for Beginners"), course("2", "Math for Beginners"),
+                course("3", "Mathematics Club"), course("4", "Music Makers"), course("5", "Modern Art"),
+                course("6", "Magic Tricks"), course("7", "Map Reading"));
+
+        InstantResult result = instantSearchService.instant("m");
+
+        assertEquals(7L, result.totalHits());
+        assertEquals(List.of("Math for Beginners", "Mathematics Club", "Music Makers", "Modern Art",
+                "Magic Tricks", "Map Reading"), result.suggestions());
+        assertEquals(InstantSearchService.MAX_HITS, result.hits().size());
+        assertEquals("1", result.hits().get(0).id());
+    }
+
+    @Test
+    void testInstant_LongerPrefixReusesCompleteCandidates() {
+        stubOptions(course("1", "Math for Beginners"), course("2", "Modern Art"), course("3", "Mathematics Club"));
+
+        instantSearchService.instant("m");
+        InstantResult ma = instantSearchService.instant("ma");
+        InstantResult mat = instantSearchService.instant("Mat");
+        InstantResult mathFor = instantSearchService.instant("math fo");
+
+        assertEquals(List.of("Math for Beginners", "Mathematics Club"), ma.suggestions());
+        assertEquals(2L, mat.totalHits());
+        assertEquals(List.of("Math for Beginners"), mathFor.suggestions());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testInstant_IncompleteCandidatesQueryAgain() {
+        stubOptions(manyCourses(200));
+
+        instantSearchService.instant("m");
+        instantSearchService.instant("ma");
+
+        verify(elasticsearchOperations, times(2)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testInstant_RepeatedPrefixIsCached() {
+        stubOptions(manyCourses(200));
+
+        instantSearchService.instant("ma");
+        instantSearchService.instant("ma ");
+
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testInstant_NewGenerationBypassesCachedPrefixes() {
+        stubOptions(course("1", "Math for Beginners"));
+
+        instantSearchService.instant("m");
+        indexGeneration.advance();
+        instantSearchService.instant("ma");
+        instantSearchService.instant("ma");
+
+        verify(elasticsearchOperations, times(2)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testInstant_TenantLookupsAreRoutedAndCachedApart() {
+        CourseDocument bigco = course("2", "Math Olympiad");
+        bigco.setTenantId("bigco");
+        stubOptions(course("1", "Math for Beginners"), bigco);
+
+        InstantResult acme = instantSearchService.instant("acme", "m");
+        InstantResult all = instantSearchService.instant("ma");
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations, times(2)).search(captor.capture(), eq(CourseHit.class), eq(IndexCoordinates.of("courses")));
+        assertEquals("acme", captor.getAllValues().get(0).getRoute());
+        assertNull(captor.getAllValues().get(1).getRoute());
+        assertEquals(List.of("Math for Beginners"), acme.suggestions());
+        assertEquals(List.of("Math for Beginners", "Math Olympiad"), all.suggestions());
+    }
+
+    @Test
+    void testInstant_UsesTitleCompletionsRankedByPopularity() {
+        CourseDocument popular = course("2", "Math Olympiad");
+        popular.setPopularity(10.0);
+        stubOptions(course("1", "Math for Beginners"), popular);
+
+        InstantResult result = instantSearchService.instant("ＭＡＴＨ");
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class), any(IndexCoordinates.class));
+        var completion = captor.getValue().getSuggester().suggesters().get("title");
+        assertEquals("math", completion.prefix());
+        assertEquals("titleSuggest", completion.completion().field());
+        assertEquals(200, completion.completion().size());
+        assertEquals(List.of("Math Olympiad", "Math for Beginners"), result.suggestions());
+    }
+
+    @Test
+    void testInstant_RefinedPrefixKeepsTheSuggesterRule() {
+        stubOptions(course("1", "Math for Beginners"), course("2", "Mathematics for Teens"), course("3", "Straße Art"));
+
+        for (String first : List.of("m", "s", "f")) {
+            instantSearchService.instant(first);
+        }
+
+        assertEquals(List.of("Math for Beginners"), instantSearchService.instant("math fo").suggestions());
+        assertEquals(List.of("Straße Art"), instantSearchService.instant("STRASSE").suggestions());
+        assertTrue(instantSearchService.instant("fo").suggestions().isEmpty());
+        verify(elasticsearchOperations, times(3)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testInstant_WithBlankQuery() {
+        InstantResult result = instantSearchService.instant("  ");
+
+        assertEquals(0L, result.totalHits());
+        assertTrue(result.suggestions().isEmpty());
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    void testInstant_WithLocalBackend() {
+        when(localSearchIndex.isEnabled()).thenReturn(true);
+        when(localSearchIndex.titlePrefixSearch(null, List.of("ma"), 200))
+                .thenReturn(new SearchResult(1L, List.of(CourseHit.from(course("1", "Math for Beginners")))));
+
+        InstantResult result = instantSearchService.instant("ma");
+
+        assertEquals(List.of("Math for Beginners"), result.suggestions());
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    /**
+     * Answers every lookup with completion options for the given courses, the way Spring Data
+     * maps a suggest response.
+     */
+    private void stubOptions(CourseDocument... courses) {
+        List<CompletionSuggestion.Entry.Option<CourseHit>> options = new ArrayList<>();
+        for (CourseDocument course : courses) {
+            CourseHit content = CourseHit.from(course);
+            CompletionSuggestion.Entry.Option<CourseHit> option = new CompletionSuggestion.Entry.Option<>(
+                    course.getTitle(), null, 1.0, null, Map.of(), null, null, content);
+            option.updateSearchHit((document, hit) -> new SearchHit<>("courses", hit.id(), null, 1.0f, null,
+                    Map.of(), Map.of(), null, null, List.of(), hit));
+            options.add(option);
+        }
+        Suggest suggest = new Suggest(List.of(new CompletionSuggestion<>("title", options.size(),
+                List.of(new CompletionSuggestion.Entry<>("m", 0, 1, options)))), false);
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class))).thenReturn(searchHits);
+        when(searchHits.getSuggest()).thenReturn(suggest);
+    }
+
+    private static CourseDocument[] manyCourses(int count) {
+        CourseDocument[] courses = new CourseDocument[count];
+        for (int i = 0; i < count; i++) {
+            courses[i] = course(String.valueOf(i), "Math " + i);
+        }
+        return courses;
+    }
+
+    private static CourseDocument course(String id, String title) {
+        CourseDocument course = new CourseDocument();
+        course.setId(id);
+        course.setTenantId("acme");
+        course.setTitle(title);
+        return course;
+    }
+}
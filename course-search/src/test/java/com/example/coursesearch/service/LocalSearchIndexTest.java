@@ -0,0 +1,323 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSearchIndexTest {
+
+    private static final String[] CATEGORIES = {"Math", "Science", "Art"};
+
+    private LocalSearchIndex index;
+    private List<CourseDocument> courses;
+
+    @BeforeEach
+    void setUp() {
+        index = new LocalSearchIndex("local", 7, 4, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        courses = new ArrayList<>();
+        Random random = new Random(42);
+        ZonedDateTime base = ZonedDateTime.parse("2025-06-01T00:00:00Z");
+        for (int i = 0; i < 100; i++) {
+            CourseDocument course = new CourseDocument();
+            course.setId(String.valueOf(i));
+            course.setTenantId(i < 60 ? "acme" : "bigco");
+            course.setTitle((i % 2 == 0 ? "Math Course " : "Painting Course ") + i);
+            course.setDescription("Description " + i);
+            course.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            course.setType(i % 4 == 0 ? "CLUB" : "COURSE");
+            course.setMinAge(5 + i % 10);
+            course.setMaxAge(10 + i % 10);
+            course.setPrice(Math.round(random.nextDouble() * 50000) / 100.0);
+            course.setNextSessionDate(base.plusHours(random.nextInt(5000)));
+            if (i % 5 != 0) {
+                course.setLocation(new GeoPoint(12.9716 + (random.nextDouble() - 0.5), 77.5946 + (random.nextDouble() - 0.5)));
+            }
+            courses.add(course);
+        }
+        index.load(courses);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void testSearch_PriceAscMatchesFullSort() {
+        SearchResult result = index.search(query().sort("priceAsc").size(15).build());
+
+        List<CourseHit> expected = courses.stream()
+                .sorted(Comparator.comparing(CourseDocument::getPrice))
+                .limit(15)
+                .map(CourseHit::from)
+                .toList();
+        assertEquals(100L, result.total());
+        assertEquals(expected, result.courses());
+    }
+
+    @Test
+    void testSearch_PriceDescWithPagination() {
+        SearchResult result = index.search(query().sort("priceDesc").page(2).size(10).build());
+
+        List<CourseHit> expected = courses.stream()
+                .sorted(Comparator.comparing(CourseDocument::getPrice).reversed())
+                .skip(20)
+                .limit(10)
+                .map(CourseHit::from)
+                .toList();
+        assertEquals(expected, result.courses());
+    }
+
+    @Test
+    void testSearch_NextSessionDateWithFilters() {
+        SearchResult result = index.search(query()
+                .keyword("MATH")
+                .category("Math")
+                .minAge(6)
+                .maxAge(12)
+                .minPrice(10.0)
+                .maxPrice(400.0)
+                .sort("nextSessionDate")
+                .size(100)
+                .build());
+
+        List<CourseHit> expected = courses.stream()
+                .filter(c -> c.getTitle().startsWith("Math"))
+                .filter(c -> c.getCategory().equals("Math"))
+                .filter(c -> c.getMinAge() >= 6 && c.getMinAge() <= 12)
+                .filter(c -> c.getPrice() >= 10.0 && c.getPrice() <= 400.0)
+                .sorted(Comparator.comparing(CourseDocument::getNextSessionDate))
+                .map(CourseHit::from)
+                .toList();
+        assertEquals(expected.size(), result.total());
+        assertEquals(expected, result.courses());
+    }
+
+    @Test
+    void testSearch_WithinRadiusSortedByDistance() {
+        double lat = 12.9716;
+        double lon = 77.5946;
+        SearchResult result = index.search(query().lat(lat).lon(lon).radiusKm(20.0).sort("distance").size(100).build());
+
+        List<CourseHit> expected = courses.stream()
+                .filter(c -> c.getLocation() != null)
+                .filter(c -> distance(c, lat, lon) <= 20.0)
+                .sorted(Comparator.comparingDouble(c -> distance(c, lat, lon)))
+                .map(CourseHit::from)
+                .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), result.total());
+        assertEquals(expected, result.courses());
+
+        LocalSearchIndex singleSegment = new LocalSearchIndex("local", 1000, 1, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            singleSegment.load(courses);
+            SearchResult gridResult = singleSegment.search(query().lat(lat).lon(lon).radiusKm(20.0).sort("distance").size(100).build());
+            assertEquals(expected, gridResult.courses());
+        } finally {
+            singleSegment.shutdown();
+        }
+    }
+
+    @Test
+    void testSearch_DistanceSortWithoutRadiusPutsUnlocatedLast() {
+        SearchResult result = index.search(query().lat(12.9716).lon(77.5946).sort("distance").size(100).build());
+
+        assertEquals(100L, result.total());
+        assertTrue(result.courses().subList(80, 100).stream().allMatch(c -> c.location() == null));
+    }
+
+    @Test
+    void testSearch_RelevanceRanksTitleMatchesFirst() {
+        courses.get(3).setTitle("Watercolor Painting Masterclass");
+        courses.get(3).setDescription("Painting with watercolor");
+        index.load(courses);
+
+        SearchResult result = index.search(query().keyword("watercolor painting").sort("relevance").size(5).build());
+
+        assertEquals(50L, result.total());
+        assertEquals("3", result.courses().get(0).id());
+    }
+
+    @Test
+    void testSearch_RelevanceBoostsPopularCourses() {
+        courses.get(1).setPopularity(1000.0);
+        courses.get(99).setNextSessionDate(courses.get(1).getNextSessionDate());
+        courses.get(99).setPopularity(0.0);
+        index.load(courses);
+
+        SearchResult result = index.search(query().keyword("painting course").sort("relevance").size(100).build());
+
+        assertEquals(100L, result.total());
+        List<String> ids = result.courses().stream().map(CourseHit::id).toList();
+        assertTrue(ids.indexOf("1") < ids.indexOf("99"));
+    }
+
+    @Test
+    void testSearch_RelevanceWithoutKeywordFallsBackToNextSessionDate() {
+        SearchResult result = index.search(query().sort("relevance").size(10).build());
+
+        List<CourseHit> expected = courses.stream()
+                .sorted(Comparator.comparing(CourseDocument::getNextSessionDate))
+                .limit(10)
+                .map(CourseHit::from)
+                .toList();
+        assertEquals(expected, result.courses());
+    }
+
+    @Test
+    void testSearch_WithTenantOnlyReturnsTenantCourses() {
+        SearchResult result = index.search(query().tenantId("bigco").category("Art").size(100).build());
+
+        List<CourseHit> expected = courses.stream()
+                .filter(c -> c.getTenantId().equals("bigco"))
+                .filter(c -> c.getCategory().equals("Art"))
+                .sorted(Comparator.comparing(CourseDocument::getNextSessionDate))
+                .map(CourseHit::from)
+                .toList();
+        assertEquals(expected.size(), result.total());
+        assertEquals(expected, result.courses());
+    }
+
+    @Test
+    void testTitlePrefixSearch_WithTenantOnlyMatchesTenantCourses() {
+        SearchResult all = index.titlePrefixSearch(null, List.of("math"), 100);
+        SearchResult bigco = index.titlePrefixSearch("bigco", List.of("math"), 100);
+
+        assertEquals(50L, all.total());
+        assertEquals(20L, bigco.total());
+        assertTrue(bigco.courses().stream().allMatch(course -> Integer.parseInt(course.id()) >= 60));
+    }
+
+    @Test
+    void testLoad_StreamedCoursesMatchListLoad() {
+        LocalSearchIndex streamed = new LocalSearchIndex("local", 7, 4, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            streamed.load(courses.stream().iterator());
+            for (String sort : List.of("priceAsc", "nextSessionDate")) {
+                SearchQuery all = query().sort(sort).size(100).build();
+                assertEquals(index.search(all), streamed.search(all));
+            }
+            assertEquals(100L, streamed.search(query().build()).total());
+        } finally {
+            streamed.shutdown();
+        }
+    }
+
+    @Test
+    void testApply_MatchesFullReload() {
+        CourseDocument renamed = copy(courses.get(10));
+        renamed.setTitle("Math Olympiad");
+        renamed.setPrice(1.0);
+        CourseDocument added = copy(courses.get(20));
+        added.setId("new");
+        List<String> deleted = List.of("0", "1", "2", "3", "4", "5", "6", "50", "missing");
+
+        index.apply(List.of(renamed, added), deleted);
+
+        List<CourseDocument> expected = new ArrayList<>(courses);
+        expected.removeIf(course -> deleted.contains(course.getId()));
+        expected.set(expected.indexOf(courses.get(10)), renamed);
+        expected.add(added);
+        LocalSearchIndex reloaded = new LocalSearchIndex("local", 7, 4, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            reloaded.load(expected);
+            for (String sort : List.of("priceAsc", "nextSessionDate")) {
+                SearchQuery all = query().sort(sort).size(100).build();
+                assertEquals(reloaded.search(all), index.search(all));
+            }
+            assertEquals(93L, index.search(query().build()).total());
+            assertEquals("10", index.search(query().sort("priceAsc").build()).courses().get(0).id());
+        } finally {
+            reloaded.shutdown();
+        }
+    }
+
+    @Test
+    void testAddPopularity_UpdatesLoadedCourse() {
+        SearchResult before = index.search(query().size(100).build());
+
+        index.addPopularity(Map.of(new CourseKey("acme", "42"), 5.0, new CourseKey("acme", "missing"), 1.0,
+                new CourseKey("bigco", "42"), 100.0));
+        index.addPopularity(Map.of(new CourseKey("acme", "42"), 2.5));
+
+        assertNull(courses.get(42).getPopularity());
+        assertTrue(before.courses().stream().allMatch(course -> course.popularity() == null));
+        assertEquals(7.5, hit("42").popularity());
+
+        index.apply(List.of(), List.of("43"));
+        assertEquals(7.5, hit("42").popularity());
+
+        CourseDocument renamed = copy(courses.get(42));
+        renamed.setTitle("Math Olympiad");
+        index.apply(List.of(renamed), List.of());
+        assertEquals("Math Olympiad", hit("42").title());
+        assertEquals(7.5, hit("42").popularity());
+        assertNull(renamed.getPopularity());
+    }
+
+    @Test
+    void testSearch_PageBeyondResults() {
+        SearchResult result = index.search(query().category("Art").page(5).size(10).build());
+
+        assertEquals(33L, result.total());
+        assertTrue(result.courses().isEmpty());
+    }
+
+    @Test
+    void testSearch_EmptyIndex() {
+        index.load(List.of());
+
+        SearchResult result = index.search(query().build());
+
+        assertEquals(0L, result.total());
+        assertTrue(result.courses().isEmpty());
+    }
+
+    @Test
+    void testSearch_ResultWindowTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> index.search(query().page(100).size(100).build()));
+    }
+
+    private CourseHit hit(String id) {
+        return index.search(query().size(100).build()).courses().stream()
+                .filter(course -> course.id().equals(id))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static CourseDocument copy(CourseDocument course) {
+        CourseDocument copy = new CourseDocument();
+        copy.setId(course.getId());
+        copy.setTenantId(course.getTenantId());
+        copy.setTitle(course.getTitle());
+        copy.setDescription(course.getDescription());
+        copy.setCategory(course.getCategory());
+        copy.setType(course.getType());
+        copy.setMinAge(course.getMinAge());
+        copy.setMaxAge(course.getMaxAge());
+        copy.setPrice(course.getPrice());
+        copy.setNextSessionDate(course.getNextSessionDate());
+        copy.setLocation(course.getLocation());
+        return copy;
+    }
+
+    private static double distance(CourseDocument course, double lat, double lon) {
+        return GeoGrid.distanceKm(lat, lon, course.getLocation().getLat(), course.getLocation().getLon());
+    }
+
+    private static SearchQuery.SearchQueryBuilder query() {
+        return SearchQuery.builder().sort("nextSessionDate").page(0).size(10);
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PopularityServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private LocalSearchIndex localSearchIndex;
+
+    private PopularityService popularityService;
+
+    @BeforeEach
+    void setUp() {
+        popularityService = new PopularityService(elasticsearchOperations, localSearchIndex,
+                new TenantIndexResolver(List.of("bigco")), 1.0, 0.05, 2, 500);
+    }
+
+    @Test
+    void testFlush_AggregatesEventsIntoOneUpdatePerCourse() {
+        popularityService.record(List.of(
+                new CourseEvent("1", CourseEvent.Type.CLICK),
+                new CourseEvent("1", CourseEvent.Type.CLICK),
+                new CourseEvent("1", CourseEvent.Type.IMPRESSION),
+                new CourseEvent("2", CourseEvent.Type.IMPRESSION)
+        ));
+
+        popularityService.flush();
+
+        Map<String, Object> deltas = captureDeltas(1).get(0);
+        assertEquals(2, deltas.size());
+        assertEquals(2.05, (Double) deltas.get("1"), 1e-9);
+        assertEquals(0.05, (Double) deltas.get("2"), 1e-9);
+    }
+
+    @Test
+    void testFlush_WithNoEvents() {
+        popularityService.flush();
+
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), eq(CourseDocument.class));
+    }
+
+    @Test
+    void testFlush_CountersResetAfterFlush() {
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.flush();
+        popularityService.flush();
+
+        verify(elasticsearchOperations, times(1)).bulkUpdate(anyList(), eq(CourseDocument.class));
+    }
+
+    @Test
+    void testFlush_RetriesDeltasAfterFailure() {
+        doThrow(new RuntimeException("cluster unavailable"))
+                .doNothing()
+                .when(elasticsearchOperations).bulkUpdate(anyList(), eq(CourseDocument.class));
+
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.flush();
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.flush();
+
+        List<Map<String, Object>> batches = captureDeltas(2);
+        assertEquals(1.0, (Double) batches.get(0).get("1"), 1e-9);
+        assertEquals(2.0, (Double) batches.get(1).get("1"), 1e-9);
+    }
+
+    @Test
+    void testFlush_DropsOnlyMissingCoursesFromBulkFailures() {
+        doThrow(new BulkFailureException("bulk failed", Map.of(
+                "1", new BulkFailureException.FailureDetails(404, "document_missing_exception"),
+                "2", new BulkFailureException.FailureDetails(429, "es_rejected_execution_exception"))))
+                .doNothing()
+                .when(elasticsearchOperations).bulkUpdate(anyList(), eq(CourseDocument.class));
+
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.record("2", CourseEvent.Type.CLICK);
+        popularityService.flush();
+        popularityService.flush();
+
+        assertEquals(Map.of("2", 1.0), captureDeltas(2).get(1));
+    }
+
+    @Test
+    void testRecord_DropsEventsBeyondTrackedCourseLimit() {
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.record("2", CourseEvent.Type.CLICK);
+        popularityService.record("3", CourseEvent.Type.CLICK);
+
+        popularityService.flush();
+
+        assertEquals(Map.of("1", 1.0, "2", 1.0), captureDeltas(1).get(0));
+    }
+
+    @Test
+    void testRecord_IgnoresEventsWithoutCourseId() {
+        popularityService.record(List.of(
+                new CourseEvent(" ", CourseEvent.Type.CLICK),
+                new CourseEvent(null, CourseEvent.Type.CLICK, "acme"),
+                new CourseEvent("3", CourseEvent.Type.CLICK)
+        ));
+
+        popularityService.flush();
+
+        assertEquals(Map.of("3", 1.0), captureDeltas(1).get(0));
+    }
+
+    @Test
+    void testFlush_ForgetsIdleCoursesSoNewOnesAreTracked() {
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.record("2", CourseEvent.Type.CLICK);
+        popularityService.flush();
+        popularityService.flush();
+
+        popularityService.record("3", CourseEvent.Type.CLICK);
+        popularityService.flush();
+
+        List<Map<String, Object>> batches = captureDeltas(2);
+        assertEquals(Map.of("3", 1.0), batches.get(1));
+    }
+
+    @Test
+    void testFlush_UpdatesLocalIndexWhenEnabled() {
+        when(localSearchIndex.isEnabled()).thenReturn(true);
+
+        popularityService.record("1", CourseEvent.Type.CLICK);
+        popularityService.flush();
+
+        verify(localSearchIndex).addPopularity(Map.of(new CourseKey(null, "1"), 1.0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_RoutesUpdatesForTenantCourses() {
+        popularityService.record(List.of(
+                new CourseEvent("1", CourseEvent.Type.CLICK, "acme"),
+                new CourseEvent("2", CourseEvent.Type.CLICK, "bigco")
+        ));
+
+        popularityService.flush();
+
+        ArgumentCaptor<List<UpdateQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkUpdate(captor.capture(), eq(CourseDocument.class));
+        Map<String, UpdateQuery> updates = captor.getValue().stream()
+                .collect(Collectors.toMap(UpdateQuery::getId, update -> update));
+        assertEquals("acme", updates.get("1").getRouting());
+        assertEquals("courses", updates.get("1").getIndexName());
+        assertEquals("bigco", updates.get("2").getRouting());
+        assertEquals("courses-bigco", updates.get("2").getIndexName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecord_CountsEveryEventWhileFlushesRetireCounters() throws Exception {
+        DoubleAdder flushed = new DoubleAdder();
+        doAnswer(invocation -> {
+            ((List<UpdateQuery>) invocation.getArgument(0))
+                    .forEach(update -> flushed.add((Double) update.getParams().get("delta")));
+            return null;
+        }).when(elasticsearchOperations).bulkUpdate(anyList(), eq(CourseDocument.class));
+        int threads = 4;
+        int events = 20_000;
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < events; i++) {
+                        popularityService.record("1", CourseEvent.Type.CLICK);
+                        if (i % 100 == 0) {
+                            // Pauses let flushes find the counters idle and retire them
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            Thread flusher = new Thread(() -> {
+                while (recording.get()) {
+                    popularityService.flush();
+                }
+            });
+            flusher.start();
+            for (Future<?> recorder : recorders) {
+                recorder.get(30, TimeUnit.SECONDS);
+            }
+            recording.set(false);
+            flusher.join();
+        } finally {
+            executor.shutdownNow();
+        }
+        popularityService.flush();
+
+        assertEquals(threads * events, flushed.sum(), 1e-6);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> captureDeltas(int flushes) {
+        ArgumentCaptor<List<UpdateQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, times(flushes)).bulkUpdate(captor.capture(), eq(CourseDocument.class));
+        return captor.getAllValues().stream()
+                .map(batch -> batch.stream().collect(Collectors.toMap(
+                        UpdateQuery::getId,
+                        update -> update.getParams().get("delta"))))
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.coursesearch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCanonicalizerTest {
+
+    private final QueryCanonicalizer canonicalizer = new QueryCanonicalizer();
+
+    @Test
+    void testCanonicalize_KeywordCaseWhitespaceAndStopwords() {
+        CanonicalQuery a = canonicalizer.canonicalize(query().keyword("  Math   for Beginners ").build());
+        CanonicalQuery b = canonicalizer.canonicalize(query().keyword("MATH BEGINNERS").build());
+
+        assertEquals("math beginners", a.query().keyword());
+        assertEquals(a.key(), b.key());
+    }
+
+    @Test
+    void testCanonicalize_UnicodeCompatibilityForms() {
+        CanonicalQuery fullWidth = canonicalizer.canonicalize(query().keyword("ＭＡＴＨ").build());
+        CanonicalQuery sharpS = canonicalizer.canonicalize(query().keyword("Straße").build());
+
+        assertEquals("math", fullWidth.query().keyword());
+        assertEquals("strasse", sharpS.query().keyword());
+        assertEquals(canonicalizer.canonicalize(query().keyword("STRASSE").build()).key(), sharpS.key());
+    }
+
+    @Test
+    void testCanonicalize_KeepsStopwordsWhenNothingElseIsLeft() {
+        assertEquals("the of", canonicalizer.canonicalize(query().keyword("The OF").build()).query().keyword());
+    }
+
+    @Test
+    void testCanonicalize_BlankValuesAreDropped() {
+        CanonicalQuery blank = canonicalizer.canonicalize(query().keyword("   ").category("").type(" ").tenantId("").build());
+
+        assertNull(blank.query().keyword());
+        assertNull(blank.query().category());
+        assertNull(blank.query().type());
+        assertNull(blank.query().tenantId());
+        assertEquals(canonicalizer.canonicalize(query().build()).key(), blank.key());
+    }
+
+    @Test
+    void testCanonicalize_PriceBoundsRoundedInwardToCents() {
+        CanonicalQuery query = canonicalizer.canonicalize(query().minPrice(100.001).maxPrice(99.999).build());
+
+        assertEquals(100.01, query.query().minPrice());
+        assertEquals(99.99, query.query().maxPrice());
+        assertEquals(canonicalizer.canonicalize(query().minPrice(100.01).maxPrice(99.99).build()).key(), query.key());
+    }
+
+    @Test
+    void testCanonicalize_PriceBoundsKeepTheSameCourses() {
+        double[] prices = {99.99, 100.0, 100.01, 149.99, 150.0};
+        double[][] bounds = {{100.001, 149.999}, {99.995, 150.0}, {100.0, 149.991}, {99.98999, 150.00001}};
+        for (double[] bound : bounds) {
+            SearchQuery canonical = canonicalizer.canonicalize(query().minPrice(bound[0]).maxPrice(bound[1]).build()).query();
+            for (double price : prices) {
+                assertEquals(price >= bound[0] && price <= bound[1],
+                        price >= canonical.minPrice() && price <= canonical.maxPrice(),
+                        price + " in " + Arrays.toString(bound));
+            }
+        }
+    }
+
+    @Test
+    void testCanonicalize_ZeroLowerBoundsAreDropped() {
+        CanonicalQuery zero = canonicalizer.canonicalize(query().minPrice(0.0).minAge(0).build());
+        CanonicalQuery withUpper = canonicalizer.canonicalize(query().minPrice(-1.0).maxPrice(50.0).minAge(0).maxAge(12).build());
+
+        assertNull(zero.query().minPrice());
+        assertNull(zero.query().minAge());
+        assertEquals(canonicalizer.canonicalize(query().build()).key(), zero.key());
+        assertEquals(canonicalizer.canonicalize(query().maxPrice(50.0).maxAge(12).build()).key(), withUpper.key());
+        assertEquals(0.01, canonicalizer.canonicalize(query().minPrice(0.001).build()).query().minPrice());
+    }
+
+    @Test
+    void testCanonicalize_UnusedOriginIsDropped() {
+        CanonicalQuery withOrigin = canonicalizer.canonicalize(query().lat(12.97).lon(77.59).build());
+
+        assertNull(withOrigin.query().lat());
+        assertEquals(canonicalizer.canonicalize(query().build()).key(), withOrigin.key());
+
+        CanonicalQuery distance = canonicalizer.canonicalize(query().lat(12.971598).lon(77.594562).radiusKm(5.001)
+                .sort("distance").build());
+        assertEquals(12.971598, distance.query().lat());
+        assertEquals(77.594562, distance.query().lon());
+        assertEquals(5.001, distance.query().radiusKm());
+    }
+
+    @Test
+    void testCanonicalize_RelevanceWithoutKeywordSortsByDate() {
+        CanonicalQuery relevance = canonicalizer.canonicalize(query().sort("relevance").build());
+
+        assertEquals("nextSessionDate", relevance.query().sort());
+        assertEquals(canonicalizer.canonicalize(query().build()).key(), relevance.key());
+    }
+
+    @Test
+    void testCanonicalize_StartDateInAnyZoneIsTheSameInstant() {
+        CanonicalQuery utc = canonicalizer.canonicalize(query().startDate(ZonedDateTime.parse("2025-06-01T00:00:00Z")).build());
+        CanonicalQuery ist = canonicalizer.canonicalize(query().startDate(ZonedDateTime.parse("2025-06-01T05:30:00+05:30")).build());
+
+        assertEquals(utc.key(), ist.key());
+    }
+
+    @Test
+    void testCanonicalize_DifferentQueriesHaveDifferentKeys() {
+        String base = canonicalizer.canonicalize(query().keyword("math").build()).key();
+
+        assertEquals(16, base.length());
+        assertNotEquals(base, canonicalizer.canonicalize(query().keyword("science").build()).key());
+        assertNotEquals(base, canonicalizer.canonicalize(query().keyword("math").page(1).build()).key());
+        assertNotEquals(base, canonicalizer.canonicalize(query().keyword("math").category("Math").build()).key());
+        assertNotEquals(base, canonicalizer.canonicalize(query().keyword("math").tenantId("acme").build()).key());
+    }
+
+    private static SearchQuery.SearchQueryBuilder query() {
+        return SearchQuery.builder().sort("nextSessionDate").page(0).size(10);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.config.ElasticsearchConfig;
+import com.example.coursesearch.document.CourseDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes allocated per search on both backends, from the query to the serialized response.
+ * Excluded from the default build; run with {@code ./mvnw test -Pbenchmark}. Allocations are
+ * summed over all threads, so the local backend's segment workers are included.
+ * <p>
+ * The Elasticsearch backend is replaced by a stub that maps stored source documents through
+ * the real Spring Data converter, with the application's conversions, on every call, so query
+ * mapping, hit reading and date parsing are counted; what the Elasticsearch client allocates
+ * to parse the HTTP response is not.
+ */
+@Tag("benchmark")
+class SearchAllocationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchAllocationBenchmarkTest.class);
+
+    private static final int CATALOG = 20_000;
+    private static final int PAGE = 20;
+    private static final int WARM_UP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new BlackbirdModule()).build();
+    private final List<CourseDocument> catalog = new SyntheticCatalogGenerator(20250601L).stream(CATALOG).toList();
+
+    @Test
+    void benchmarkLocalBackend() throws Exception {
+        LocalSearchIndex index = new LocalSearchIndex("local", 8192, 0, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            index.load(catalog);
+            measure("local", searchService(Mockito.mock(ElasticsearchOperations.class), index));
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void benchmarkElasticsearchBackend() throws Exception {
+        LocalSearchIndex index = new LocalSearchIndex("elasticsearch", 8192, 0, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5));
+        try {
+            measure("elasticsearch", searchService(elasticsearch(catalog.subList(0, PAGE)), index));
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    private void measure(String backend, SearchService searchService) throws Exception {
+        SearchQuery query = SearchQuery.builder().sort("nextSessionDate").page(0).size(PAGE).build();
+        SearchResult result = searchService.searchUncached(query);
+        assertEquals(PAGE, result.courses().size());
+        int payload = objectMapper.writeValueAsBytes(result).length;
+
+        long search = allocatedPerSearch(() -> searchService.searchUncached(query));
+        long streamed = allocatedPerSearch(() -> objectMapper.writeValue(OutputStream.nullOutputStream(),
+                searchService.searchUncached(query)));
+        long buffered = allocatedPerSearch(() -> objectMapper.writeValueAsBytes(searchService.searchUncached(query)));
+        logger.info("{} backend, {}-hit page: search {} B, search + streamed JSON {} B, "
+                        + "search + writeValueAsBytes {} B, payload {} B",
+                backend, PAGE, search, streamed, buffered, payload);
+    }
+
+    private static long allocatedPerSearch(Search search) throws Exception {
+        for (int i = 0; i < WARM_UP; i++) {
+            search.run();
+        }
+        long start = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.run();
+        }
+        return (allocatedBytes() - start) / ITERATIONS;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(allocated, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Answers every search with the given courses, read from their stored source into the
+     * requested type on each call the way the Elasticsearch template maps a response.
+     */
+    private static ElasticsearchOperations elasticsearch(List<CourseDocument> courses) {
+        ElasticsearchCustomConversions conversions = new ElasticsearchConfig().elasticsearchCustomConversions();
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+        List<Document> sources = new ArrayList<>();
+        for (CourseDocument course : courses) {
+            Document source = Document.create();
+            converter.write(course, source);
+            source.setId(course.getId());
+            sources.add(source);
+        }
+        return (ElasticsearchOperations) Proxy.newProxyInstance(SearchAllocationBenchmarkTest.class.getClassLoader(),
+                new Class<?>[]{ElasticsearchOperations.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getElasticsearchConverter")) {
+                        return converter;
+                    }
+                    if (!method.getName().equals("search")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Class<?> type = (Class<?>) args[1];
+                    List<SearchHit<Object>> hits = new ArrayList<>(sources.size());
+                    for (Document source : sources) {
+                        hits.add(new SearchHit<>("courses", source.getId(), null, 1.0f, null, Map.of(), Map.of(),
+                                null, null, List.of(), converter.read(type, source)));
+                    }
+                    return new SearchHitsImpl<>(CATALOG, TotalHitsRelation.EQUAL_TO, 1.0f, null, null, null, hits,
+                            null, null, null);
+                });
+    }
+
+    private static SearchService searchService(ElasticsearchOperations elasticsearchOperations, LocalSearchIndex index) {
+        return new SearchService(elasticsearchOperations, index, new RelevanceRanking(100, 30, 0.5, 1.0, 0.5),
+                new TenantIndexResolver(List.of()), new QueryCanonicalizer(), new SearchResultCache(100, 30),
+                new IndexGeneration(), new SpellingDictionary(false, 0.8, 0),
+                new HedgedSearchExecutor(false, 0.05, 5, 1000, 100, 64), Mockito.mock(WarmSet.class));
+    }
+
+    private interface Search {
+        void run() throws Exception;
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +15,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
 
@@ -33,10 +38,37 @@ class SearchServiceTest {
     private ElasticsearchOperations elasticsearchOperations;
 
     @Mock
-    private SearchHits<CourseDocument> searchHits;
+    private SearchHits<CourseHit> searchHits;
 
     @Mock
-    private SearchHit<CourseDocument> searchHit;
+    private SearchHit<CourseHit> searchHit;
+
+    @Mock
+    private LocalSearchIndex localSearchIndex;
+
+    @Spy
+    private RelevanceRanking relevanceRanking = new RelevanceRanking(100, 30, 0.5, 1.0, 0.5);
+
+    @Spy
+    private TenantIndexResolver tenantIndexResolver = new TenantIndexResolver(List.of("bigco"));
+
+    @Spy
+    private QueryCanonicalizer queryCanonicalizer = new QueryCanonicalizer();
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(100, 30);
+
+    @Spy
+    private IndexGeneration indexGeneration = new IndexGeneration();
+
+    @Spy
+    private SpellingDictionary spellingDictionary = new SpellingDictionary(true, 0.8, 0);
+
+    @Mock
+    private HedgedSearchExecutor hedgedSearchExecutor;
+
+    @Mock
+    private WarmSet warmSet;
 
     @InjectMocks
     private SearchService searchService;
@@ -55,175 +87,200 @@ class SearchServiceTest {
         sampleCourse.setMaxAge(8);
         sampleCourse.setPrice(199.99);
         sampleCourse.setNextSessionDate(ZonedDateTime.parse("2025-06-10T15:00:00Z"));
+
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        lenient().when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter);
     }
 
     @Test
     void testSearch_WithKeyword() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", null, null, null, null,
                 null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        assertEquals("Math for Beginners", result.getCourses().get(0).getTitle());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        assertEquals("Math for Beginners", result.courses().get(0).title());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithAllFilters() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", 6, 10, "Math", "COURSE",
                 100.0, 300.0, ZonedDateTime.parse("2025-06-01T00:00:00Z"), "priceAsc", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithNoKeyword() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search(null, null, null, null, null,
                 null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithEmptyResults() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(0L);
-        when(searchHits.stream()).thenReturn(Stream.empty());
+        when(searchHits.getSearchHits()).thenReturn(List.of());
 
         SearchResult result = searchService.search("nonexistent", null, null, null, null,
                 null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(0L, result.getTotal());
-        assertTrue(result.getCourses().isEmpty());
+        assertEquals(0L, result.total());
+        assertTrue(result.courses().isEmpty());
     }
 
     @Test
     void testSearch_WithPriceSort() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", null, null, null, null,
                 null, null, null, "priceAsc", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithPriceDescSort() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", null, null, null, null,
                 null, null, null, "priceDesc", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithPagination() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", null, null, null, null,
                 null, null, null, "nextSessionDate", 2, 5);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithAgeRange() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", 6, 10, null, null,
                 null, null, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithPriceRange() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", null, null, null, null,
                 100.0, 300.0, null, "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSearch_WithStartDate() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.getTotalHits()).thenReturn(1L);
-        when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SearchResult result = searchService.search("math", null, null, null, null,
                 null, null, ZonedDateTime.parse("2025-06-01T00:00:00Z"), "nextSessionDate", 0, 10);
 
         assertNotNull(result);
-        assertEquals(1L, result.getTotal());
-        assertEquals(1, result.getCourses().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, result.courses().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearch_QueryIsMappedAgainstCourseDocumentAndReadAsHits() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        searchService.search(null, null, null, null, null,
+                null, null, ZonedDateTime.parse("2025-06-01T05:30:00+05:30"), "nextSessionDate", 0, 10);
+
+        ArgumentCaptor<CriteriaQuery> captor = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class), any(IndexCoordinates.class));
+        assertTrue(captor.getValue().queryIsUpdatedByConverter());
+        Object startDate = captor.getValue().getCriteria().getCriteriaChain().stream()
+                .filter(criteria -> "nextSessionDate".equals(criteria.getField().getName()))
+                .flatMap(criteria -> criteria.getQueryCriteriaEntries().stream())
+                .findFirst()
+                .orElseThrow()
+                .getValue();
+        assertEquals("20250601T000000.000Z", startDate);
     }
 
     @Test
@@ -247,19 +304,295 @@ class SearchServiceTest {
         });
     }
 
+    @Test
+    void testSearch_WithRelevanceSortAddsRescorer() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(1L);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
+
+        SearchResult result = searchService.search("math", null, null, null, null,
+                null, null, null, "relevance", 0, 10);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class), any(IndexCoordinates.class));
+        assertEquals(1L, result.total());
+        assertEquals(1, captor.getValue().getRescorerQueries().size());
+        assertEquals(100, captor.getValue().getRescorerQueries().get(0).getWindowSize());
+        assertTrue(captor.getValue().getSort().isUnsorted());
+    }
+
+    @Test
+    void testSearch_WithRelevanceSortAndNoKeyword() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(1L);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
+
+        searchService.search(null, null, null, null, null,
+                null, null, null, "relevance", 0, 10);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class), any(IndexCoordinates.class));
+        assertTrue(captor.getValue().getRescorerQueries().isEmpty());
+        assertNotNull(captor.getValue().getSort().getOrderFor("nextSessionDate"));
+    }
+
+    @Test
+    void testSearch_WithLocationRadiusAndDistanceSort() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(1L);
+        when(searchHits.getSearchHits()).thenReturn(Arrays.asList(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
+
+        SearchResult result = searchService.search(SearchQuery.builder()
+                .lat(12.97).lon(77.59).radiusKm(10.0).sort("distance").page(0).size(10).build());
+
+        assertEquals(1L, result.total());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearch_WithSharedTenantRoutesToTenantShard() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        searchService.search(SearchQuery.builder().tenantId("acme").sort("nextSessionDate").page(0).size(10).build());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class), eq(IndexCoordinates.of("courses")));
+        assertEquals("acme", captor.getValue().getRoute());
+    }
+
+    @Test
+    void testSearch_WithDedicatedTenantUsesTenantIndex() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        searchService.search(SearchQuery.builder().tenantId("bigco").sort("nextSessionDate").page(0).size(10).build());
+
+        verify(elasticsearchOperations).search(any(Query.class), eq(CourseHit.class), eq(IndexCoordinates.of("courses-bigco")));
+    }
+
+    @Test
+    void testSearch_WithoutTenantSearchesAllIndices() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        searchService.search(SearchQuery.builder().sort("nextSessionDate").page(0).size(10).build());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class),
+                eq(IndexCoordinates.of("courses", "courses-bigco")));
+        assertNull(captor.getValue().getRoute());
+    }
+
+    @Test
+    void testSearch_EquivalentQueriesShareOneBackendCall() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(1L);
+        when(searchHits.getSearchHits()).thenReturn(List.of(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
+
+        SearchResult first = searchService.search(" MATH for  Beginners ", null, null, "Math", "",
+                100.0, 300.0, null, "nextSessionDate", 0, 10);
+        SearchResult second = searchService.search("math beginners", null, null, "Math", null,
+                99.991, 300.009, null, "nextSessionDate", 0, 10);
+
+        assertSame(first, second);
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearchUncached_BypassesResultCache() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenAnswer(invocation -> List.of());
+        SearchQuery query = SearchQuery.builder().keyword("math").sort("nextSessionDate").page(0).size(10).build();
+
+        searchService.search(query);
+        searchService.searchUncached(query);
+        searchService.searchUncached(query);
+
+        verify(elasticsearchOperations, times(3)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearch_NewIndexGenerationMissesCache() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenAnswer(invocation -> List.of());
+
+        searchService.search("math", null, null, null, null, null, null, null, "nextSessionDate", 0, 10);
+        indexGeneration.advance();
+        searchService.search("math", null, null, null, null, null, null, null, "nextSessionDate", 0, 10);
+
+        verify(elasticsearchOperations, times(2)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearch_ZeroHitsRerunsConfidentCorrection() {
+        spellingDictionary.load(List.of(sampleCourse));
+        SearchHits<CourseHit> correctedHits = mock(SearchHits.class);
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits, correctedHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+        when(correctedHits.getTotalHits()).thenReturn(1L);
+        when(correctedHits.getSearchHits()).thenReturn(List.of(searchHit));
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
+
+        SearchResult result = searchService.search("beginers", null, null, null, null,
+                null, null, null, "nextSessionDate", 0, 10);
+
+        assertEquals("beginners", result.suggestedQuery());
+        assertEquals(1L, result.total());
+        verify(elasticsearchOperations, times(2)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearch_ZeroHitsOnlySuggestsWhenRerunDisabled() {
+        SpellingDictionary suggestOnly = new SpellingDictionary(false, 0.8, 0);
+        suggestOnly.load(List.of(sampleCourse));
+        SearchService service = new SearchService(elasticsearchOperations, localSearchIndex, relevanceRanking,
+                tenantIndexResolver, queryCanonicalizer, searchResultCache, indexGeneration, suggestOnly, hedgedSearchExecutor, warmSet);
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        SearchResult result = service.search("beginers", null, null, null, null,
+                null, null, null, "nextSessionDate", 0, 10);
+
+        assertEquals("beginners", result.suggestedQuery());
+        assertEquals(0L, result.total());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearch_HedgedAttemptsBuildTheirOwnQuery() {
+        when(hedgedSearchExecutor.isEnabled()).thenReturn(true);
+        when(hedgedSearchExecutor.execute(anyString(), any())).thenAnswer(invocation -> {
+            java.util.function.Function<String, SearchHits<CourseHit>> attempt = invocation.getArgument(1);
+            attempt.apply("a-0");
+            return attempt.apply("a-1");
+        });
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        searchService.search("math", null, null, null, null, null, null, null, "priceAsc", 0, 10);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations, times(2)).search(captor.capture(), eq(CourseHit.class), any(IndexCoordinates.class));
+        Query first = captor.getAllValues().get(0);
+        Query second = captor.getAllValues().get(1);
+        assertNotSame(first, second);
+        assertEquals("a-0", first.getPreference());
+        assertEquals("a-1", second.getPreference());
+        assertEquals(first.getSort(), second.getSort());
+    }
+
+    @Test
+    void testSearch_PageBoundsMatchRequestParameters() {
+        SearchQuery.SearchQueryBuilder query = SearchQuery.builder().sort(SearchQuery.DEFAULT_SORT);
+
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(query.page(-1).size(10).build()));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(query.page(0).size(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(query.page(0).size(SearchQuery.MAX_SIZE + 1).build()));
+        assertNull(SearchQueryParams.parse("size=" + (SearchQuery.MAX_SIZE + 1)));
+        assertNotNull(SearchQueryParams.parse("size=" + SearchQuery.MAX_SIZE));
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    void testSearch_WithLatitudeButNoLongitude() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(SearchQuery.builder()
+                .lat(12.97).sort("nextSessionDate").page(0).size(10).build()));
+    }
+
+    @Test
+    void testSearch_WithRadiusButNoLocation() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(SearchQuery.builder()
+                .radiusKm(10.0).sort("nextSessionDate").page(0).size(10).build()));
+    }
+
+    @Test
+    void testSearch_WithDistanceSortButNoLocation() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(SearchQuery.builder()
+                .sort("distance").page(0).size(10).build()));
+    }
+
+    @Test
+    void testSearch_WithLocalBackend() {
+        when(localSearchIndex.isEnabled()).thenReturn(true);
+        when(localSearchIndex.search(any(SearchQuery.class)))
+                .thenReturn(new SearchResult(1L, List.of(CourseHit.from(sampleCourse))));
+
+        SearchResult result = searchService.search("math", null, null, "Math", null,
+                null, null, null, "priceAsc", 0, 10);
+
+        assertEquals(1L, result.total());
+        verify(localSearchIndex, times(1)).search(SearchQuery.builder()
+                .keyword("math").category("Math").sort("priceAsc").page(0).size(10).build());
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSearch_WarmPageSkipsBackend() {
+        SearchResult warm = new SearchResult(1L, List.of(CourseHit.from(sampleCourse)));
+        when(warmSet.find(anyString())).thenReturn(new WarmPage(warm, new byte[0]));
+
+        SearchResult result = searchService.search("math", null, null, "Math", null,
+                null, null, null, "priceAsc", 0, 10);
+
+        assertSame(warm, result);
+        verify(warmSet).record(any(CanonicalQuery.class));
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testLoad_BypassesWarmSet() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.getTotalHits()).thenReturn(0L);
+        when(searchHits.getSearchHits()).thenReturn(List.of());
+
+        searchService.load(SearchQuery.builder().category("Math").sort("priceAsc").page(0).size(10).build());
+
+        verifyNoInteractions(warmSet);
+        assertThrows(IllegalArgumentException.class, () -> searchService.load(
+                SearchQuery.builder().minAge(10).maxAge(5).sort("priceAsc").page(0).size(10).build()));
+    }
+
     @Test
     void testSuggest_WithValidQuery() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.stream()).thenReturn(Arrays.asList(searchHit).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SuggestResult result = searchService.suggest("math");
 
         assertNotNull(result);
-        assertEquals(1, result.getSuggestions().size());
-        assertEquals("Math for Beginners", result.getSuggestions().get(0));
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(1, result.suggestions().size());
+        assertEquals("Math for Beginners", result.suggestions().get(0));
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
@@ -267,9 +600,9 @@ class SearchServiceTest {
         SuggestResult result = searchService.suggest("");
 
         assertNotNull(result);
-        assertEquals(0L, result.getTotalHits());
-        assertTrue(result.getSuggestions().isEmpty());
-        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(0L, result.totalHits());
+        assertTrue(result.suggestions().isEmpty());
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
@@ -277,9 +610,9 @@ class SearchServiceTest {
         SuggestResult result = searchService.suggest(null);
 
         assertNotNull(result);
-        assertEquals(0L, result.getTotalHits());
-        assertTrue(result.getSuggestions().isEmpty());
-        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(0L, result.totalHits());
+        assertTrue(result.suggestions().isEmpty());
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
@@ -287,42 +620,68 @@ class SearchServiceTest {
         SuggestResult result = searchService.suggest("   ");
 
         assertNotNull(result);
-        assertEquals(0L, result.getTotalHits());
-        assertTrue(result.getSuggestions().isEmpty());
-        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(0L, result.totalHits());
+        assertTrue(result.suggestions().isEmpty());
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSuggest_WithMultipleResults() {
         CourseDocument course2 = new CourseDocument();
         course2.setTitle("Advanced Math");
-        SearchHit<CourseDocument> searchHit2 = mock(SearchHit.class);
-        when(searchHit2.getContent()).thenReturn(course2);
+        SearchHit<CourseHit> searchHit2 = mock(SearchHit.class);
+        when(searchHit2.getContent()).thenReturn(CourseHit.from(course2));
 
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.stream()).thenReturn(Arrays.asList(searchHit, searchHit2).stream());
-        when(searchHit.getContent()).thenReturn(sampleCourse);
+        when(searchHit.getContent()).thenReturn(CourseHit.from(sampleCourse));
 
         SuggestResult result = searchService.suggest("math");
 
         assertNotNull(result);
-        assertEquals(2, result.getSuggestions().size());
-        assertTrue(result.getSuggestions().contains("Math for Beginners"));
-        assertTrue(result.getSuggestions().contains("Advanced Math"));
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(2, result.suggestions().size());
+        assertTrue(result.suggestions().contains("Math for Beginners"));
+        assertTrue(result.suggestions().contains("Advanced Math"));
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
     }
 
     @Test
     void testSuggest_WithNoResults() {
-        when(elasticsearchOperations.search(any(Query.class), eq(CourseDocument.class)))
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
                 .thenReturn(searchHits);
         when(searchHits.stream()).thenReturn(Stream.empty());
 
         SuggestResult result = searchService.suggest("nonexistent");
 
         assertNotNull(result);
-        assertEquals(0, result.getSuggestions().size());
-        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseDocument.class));
+        assertEquals(0, result.suggestions().size());
+        verify(elasticsearchOperations, times(1)).search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testSuggest_WithSharedTenantRoutesToTenantShard() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.stream()).thenReturn(Stream.empty());
+
+        searchService.suggest("acme", "math");
+
+        ArgumentCaptor<CriteriaQuery> captor = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(CourseHit.class), eq(IndexCoordinates.of("courses")));
+        assertEquals("acme", captor.getValue().getRoute());
+        assertTrue(captor.getValue().getCriteria().getCriteriaChain().stream()
+                .anyMatch(criteria -> "tenantId".equals(criteria.getField().getName())));
+    }
+
+    @Test
+    void testSuggest_WithDedicatedTenantUsesTenantIndex() {
+        when(elasticsearchOperations.search(any(Query.class), eq(CourseHit.class), any(IndexCoordinates.class)))
+                .thenReturn(searchHits);
+        when(searchHits.stream()).thenReturn(Stream.empty());
+
+        searchService.suggest("bigco", "math");
+
+        verify(elasticsearchOperations).search(any(Query.class), eq(CourseHit.class), eq(IndexCoordinates.of("courses-bigco")));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpellingDictionaryTest {
+
+    private SpellingDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new SpellingDictionary(true, 0.8, 0);
+        List<CourseDocument> courses = new ArrayList<>();
+        courses.add(course("Math for Beginners", "Intro to basic math concepts."));
+        courses.add(course("Advanced Mathematics", "Algebra and geometry for older students."));
+        courses.add(course("Science Explorers", "Hands-on science activities."));
+        courses.add(course("Painting Workshop", "Watercolor painting for kids."));
+        for (int i = 0; i < 10; i++) {
+            courses.add(course("Coding Club " + i, "Learn coding with games."));
+        }
+        courses.add(course("Cooking Basics", null));
+        dictionary.load(courses);
+    }
+
+    @Test
+    void testSuggest_CorrectsMisspelledWords() {
+        SpellingDictionary.Suggestion suggestion = dictionary.suggest("mathematcs beginers");
+
+        assertEquals("mathematics beginners", suggestion.query());
+    }
+
+    @Test
+    void testSuggest_HandlesTranspositions() {
+        assertEquals("science", dictionary.suggest("sceince").query());
+        // the transposition changes four of the six padded trigrams of a four-letter word
+        assertEquals("math", dictionary.suggest("mtah").query());
+    }
+
+    @Test
+    void testSuggest_PrefersFrequentTermAtSameDistance() {
+        SpellingDictionary.Suggestion suggestion = dictionary.suggest("codking");
+
+        assertEquals("coding", suggestion.query());
+        assertTrue(suggestion.confidence() > 0.8);
+    }
+
+    @Test
+    void testSuggest_KnownWordsNeedNoSuggestion() {
+        assertNull(dictionary.suggest("math painting"));
+    }
+
+    @Test
+    void testSuggest_NoCandidateMeansNoSuggestion() {
+        assertNull(dictionary.suggest("xylophone"));
+        assertNull(dictionary.suggest(null));
+    }
+
+    @Test
+    void testSuggest_AmbiguousCorrectionHasLowConfidence() {
+        dictionary.add(List.of(course("Cooling Systems", null)));
+        dictionary.rebuild();
+
+        SpellingDictionary.Suggestion suggestion = dictionary.suggest("cooxing");
+
+        assertNotNull(suggestion);
+        assertFalse(dictionary.shouldRerun(suggestion));
+    }
+
+    @Test
+    void testAdd_VisibleAfterRebuild() {
+        dictionary.add(List.of(course("Xylophone Lessons", null)));
+
+        assertNull(dictionary.suggest("xylophome"));
+        dictionary.rebuild();
+
+        assertEquals("xylophone", dictionary.suggest("xylophome").query());
+    }
+
+    @Test
+    void testSuggest_WithTenantUsesItsOwnVocabulary() {
+        CourseDocument pottery = course("Pottery Studio", "Wheel throwing.");
+        pottery.setTenantId("acme");
+        dictionary.add(List.of(pottery));
+        dictionary.rebuild();
+
+        assertEquals("pottery", dictionary.suggest("acme", "potery").query());
+        assertEquals("pottery", dictionary.suggest("potery").query());
+        assertNull(dictionary.suggest("acme", "sceince"));
+        assertNull(dictionary.suggest("bigco", "potery"));
+    }
+
+    @Test
+    void testEditDistance() {
+        assertEquals(0, SpellingDictionary.editDistance("math", "math", 2));
+        assertEquals(1, SpellingDictionary.editDistance("math", "maths", 2));
+        assertEquals(1, SpellingDictionary.editDistance("sceince", "science", 2));
+        assertEquals(2, SpellingDictionary.editDistance("kitten", "sitting", 1));
+    }
+
+    private static CourseDocument course(String title, String description) {
+        CourseDocument course = new CourseDocument();
+        course.setTitle(title);
+        course.setDescription(description);
+        return course;
+    }
+}
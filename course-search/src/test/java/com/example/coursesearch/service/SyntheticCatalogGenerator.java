@@ -0,0 +1,185 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic catalog of any size with production-like skew: Zipfian categories,
+ * tenants and cities, log-normal prices by course type, age bands, session dates spread
+ * over a year and titles drawn from a per-category vocabulary.
+ * <p>
+ * Course {@code i} depends only on the seed and {@code i}, so catalogs can be generated in
+ * parallel, in any order, and a larger catalog starts with the courses of a smaller one.
+ */
+final class SyntheticCatalogGenerator {
+
+    static final String[] CATEGORIES = {
+            "Math", "Science", "Art", "Language", "Music", "Technology", "Coding", "Sports", "Drama", "Geography",
+            "History", "Chess", "Dance", "Cooking", "Robotics", "Photography", "Writing", "Debate", "Nature", "Astronomy"
+    };
+    static final String[] TYPES = {"COURSE", "CLUB", "ONE_TIME"};
+
+    private static final String[][] TOPICS = {
+            {"Algebra", "Geometry", "Number Sense", "Fractions", "Mental Math", "Statistics"},
+            {"Chemistry", "Physics", "Biology", "Experiments", "Lab", "Inventors"},
+            {"Painting", "Drawing", "Sculpture", "Watercolor", "Comics", "Pottery"},
+            {"Spanish", "French", "Mandarin", "German", "Phonics", "Storytelling"},
+            {"Piano", "Guitar", "Choir", "Percussion", "Music Theory", "Violin"},
+            {"Electronics", "3D Printing", "App Design", "Game Design", "Circuits", "Digital Media"},
+            {"Python", "Scratch", "JavaScript", "Web Design", "Algorithms", "Minecraft Modding"},
+            {"Soccer", "Basketball", "Swimming", "Tennis", "Gymnastics", "Martial Arts"},
+            {"Acting", "Improv", "Stagecraft", "Puppetry", "Musical Theatre", "Voice"},
+            {"Maps", "World Cultures", "Landforms", "Climate", "Explorers", "Oceans"},
+            {"Ancient Egypt", "Medieval Times", "World Wars", "Detectives", "Empires", "Archaeology"},
+            {"Openings", "Tactics", "Endgames", "Tournament Play", "Puzzles", "Strategy"},
+            {"Ballet", "Hip Hop", "Jazz Dance", "Folk Dance", "Tap", "Contemporary"},
+            {"Baking", "Healthy Snacks", "World Kitchens", "Pastry", "Pizza", "Kitchen Science"},
+            {"Robot Building", "Lego Robotics", "Sensors", "Drones", "Automation", "Competition Robots"},
+            {"Camera Basics", "Portraits", "Nature Photos", "Photo Editing", "Film Making", "Stop Motion"},
+            {"Creative Writing", "Poetry", "Journalism", "Comic Scripts", "Fan Fiction", "Essays"},
+            {"Public Speaking", "Model UN", "Argumentation", "Debate Club", "Speech", "Mock Trial"},
+            {"Gardening", "Bird Watching", "Forest School", "Insects", "Ecology", "Outdoor Skills"},
+            {"Stargazing", "Planets", "Rockets", "Space Science", "Telescopes", "Moon Missions"}
+    };
+    private static final String[] LEVELS = {"", "Intro to ", "Beginner ", "Intermediate ", "Advanced ", "Junior ", "Creative "};
+    private static final String[] FORMATS = {"Workshop", "Lab", "Club", "Camp", "Studio", "Academy", "Explorers", "101"};
+    private static final String[] PHRASES = {
+            "hands-on projects every week", "small groups with a dedicated mentor", "a final showcase for families",
+            "take-home kits and activity sheets", "games that build real skills", "flexible weekend sessions"
+    };
+    private static final double[][] CITIES = {
+            {12.9716, 77.5946}, {19.0760, 72.8777}, {28.6139, 77.2090}, {13.0827, 80.2707}, {17.3850, 78.4867},
+            {18.5204, 73.8567}, {22.5726, 88.3639}, {23.0225, 72.5714}, {26.9124, 75.7873}, {30.7333, 76.7794}
+    };
+    private static final ZonedDateTime FIRST_SESSION = ZonedDateTime.of(2025, 6, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final double[] categoryCdf = zipfCdf(CATEGORIES.length, 1.1);
+    private final double[] cityCdf = zipfCdf(CITIES.length, 1.0);
+    private final double[] tenantCdf;
+
+    SyntheticCatalogGenerator(long seed) {
+        this(seed, 200);
+    }
+
+    SyntheticCatalogGenerator(long seed, int tenants) {
+        if (tenants < 1) {
+            throw new IllegalArgumentException("tenants must be positive");
+        }
+        this.seed = seed;
+        this.tenantCdf = zipfCdf(tenants, 0.9);
+    }
+
+    Stream<CourseDocument> stream(long count) {
+        return LongStream.range(0, count).mapToObj(this::course);
+    }
+
+    CourseDocument course(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * GOLDEN_GAMMA));
+        int category = sample(categoryCdf, random);
+        String type = type(random);
+        String[] topics = TOPICS[category];
+        String topic = topics[random.nextInt(topics.length)];
+
+        CourseDocument course = new CourseDocument();
+        course.setId("syn-" + index);
+        course.setTenantId(String.format("tenant-%03d", sample(tenantCdf, random)));
+        course.setTitle(LEVELS[random.nextInt(LEVELS.length)] + topic + " " + FORMATS[random.nextInt(FORMATS.length)]);
+        course.setDescription("Explore " + topic.toLowerCase() + " in this " + CATEGORIES[category].toLowerCase()
+                + " " + type.toLowerCase().replace('_', '-') + " with " + PHRASES[random.nextInt(PHRASES.length)] + ".");
+        course.setCategory(CATEGORIES[category]);
+        course.setType(type);
+
+        int minAge = 4 + random.nextInt(12);
+        int maxAge = Math.min(18, minAge + 2 + random.nextInt(4));
+        course.setMinAge(minAge);
+        course.setMaxAge(maxAge);
+        course.setGradeRange(grade(minAge) + "-" + grade(maxAge));
+
+        course.setPrice(price(type, random));
+        course.setNextSessionDate(FIRST_SESSION
+                .plusDays(Math.min(364, (long) (-Math.log(1 - random.nextDouble()) * 60)))
+                .plusHours(8 + random.nextInt(12))
+                .plusMinutes(random.nextBoolean() ? 0 : 30));
+        if (random.nextInt(10) != 0) {
+            double[] city = CITIES[sample(cityCdf, random)];
+            course.setLocation(new GeoPoint(
+                    round(city[0] + gaussian(random) * 0.08, 5),
+                    round(city[1] + gaussian(random) * 0.08, 5)));
+        }
+        course.setPopularity(Math.floor(Math.pow(random.nextDouble(), 4) * 1000));
+        course.setTitleSuggest(course.getTitle());
+        return course;
+    }
+
+    private static String type(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 45 ? TYPES[0] : roll < 75 ? TYPES[1] : TYPES[2];
+    }
+
+    /**
+     * Log-normal around a per-type median, priced to whole or .99 amounts.
+     */
+    private static double price(String type, SplittableRandom random) {
+        double median = switch (type) {
+            case "ONE_TIME" -> 25;
+            case "CLUB" -> 60;
+            default -> 150;
+        };
+        double price = Math.min(2000, Math.max(5, median * Math.exp(gaussian(random) * 0.6)));
+        return random.nextBoolean() ? Math.floor(price) + 0.99 : Math.round(price);
+    }
+
+    private static String grade(int age) {
+        int grade = age - 5;
+        if (grade <= 0) {
+            return "Pre-K";
+        }
+        return grade + (grade == 1 ? "st" : grade == 2 ? "nd" : grade == 3 ? "rd" : "th");
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, SplittableRandom random) {
+        double roll = random.nextDouble();
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < roll) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
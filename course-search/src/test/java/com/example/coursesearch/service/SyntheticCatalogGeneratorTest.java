@@ -0,0 +1,78 @@
+package com.example.coursesearch.service;
+
+import com.example.coursesearch.document.CourseDocument;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticCatalogGeneratorTest {
+
+    private static final ZonedDateTime FIRST_SESSION = ZonedDateTime.parse("2025-06-01T00:00:00Z");
+
+    @Test
+    void testStream_SameSeedSameCatalog() {
+        List<CourseDocument> first = new SyntheticCatalogGenerator(42).stream(2_000).toList();
+        List<CourseDocument> second = new SyntheticCatalogGenerator(42).stream(2_000).toList();
+        List<CourseDocument> other = new SyntheticCatalogGenerator(43).stream(2_000).toList();
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(first.get(1_234), new SyntheticCatalogGenerator(42).course(1_234));
+        assertEquals(first.subList(0, 500), new SyntheticCatalogGenerator(42).stream(500).toList());
+    }
+
+    @Test
+    void testStream_Distributions() {
+        List<CourseDocument> courses = new SyntheticCatalogGenerator(7).stream(20_000).toList();
+
+        Map<String, Long> byCategory = courses.stream()
+                .collect(Collectors.groupingBy(CourseDocument::getCategory, Collectors.counting()));
+        long math = byCategory.get(SyntheticCatalogGenerator.CATEGORIES[0]);
+        long science = byCategory.get(SyntheticCatalogGenerator.CATEGORIES[1]);
+        long astronomy = byCategory.get(SyntheticCatalogGenerator.CATEGORIES[19]);
+        assertTrue(math > science && science > astronomy * 5, "categories should be Zipfian: " + byCategory);
+        assertTrue(Arrays.stream(SyntheticCatalogGenerator.TYPES).allMatch(type ->
+                courses.stream().anyMatch(course -> course.getType().equals(type))));
+
+        double medianCoursePrice = median(courses, "COURSE");
+        double medianOneTimePrice = median(courses, "ONE_TIME");
+        assertTrue(medianCoursePrice > medianOneTimePrice * 3);
+
+        long located = courses.stream().filter(course -> course.getLocation() != null).count();
+        assertTrue(located > 17_000 && located < 19_000);
+        long distinctTitles = courses.stream().map(CourseDocument::getTitle).distinct().count();
+        assertTrue(distinctTitles > 1_000);
+
+        for (CourseDocument course : courses) {
+            assertTrue(course.getMinAge() <= course.getMaxAge());
+            assertTrue(course.getPrice() >= 5 && course.getPrice() <= 2_000);
+            assertFalse(course.getNextSessionDate().isBefore(FIRST_SESSION));
+            assertTrue(course.getNextSessionDate().isBefore(FIRST_SESSION.plusDays(366)));
+            assertEquals(course.getTitle(), course.getTitleSuggest());
+        }
+    }
+
+    @Test
+    void testZipfCdf() {
+        double[] cdf = SyntheticCatalogGenerator.zipfCdf(3, 1.0);
+
+        assertEquals(6.0 / 11, cdf[0], 1e-9);
+        assertEquals(9.0 / 11, cdf[1], 1e-9);
+        assertEquals(1.0, cdf[2], 1e-9);
+    }
+
+    private static double median(List<CourseDocument> courses, String type) {
+        double[] prices = courses.stream()
+                .filter(course -> course.getType().equals(type))
+                .mapToDouble(CourseDocument::getPrice)
+                .sorted()
+                .toArray();
+        return prices[prices.length / 2];
+    }
+}
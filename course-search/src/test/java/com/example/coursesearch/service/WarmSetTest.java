@@ -0,0 +1,117 @@
+package com.example.coursesearch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmSetTest {
+
+    private final QueryCanonicalizer canonicalizer = new QueryCanonicalizer();
+    private final IndexGeneration indexGeneration = new IndexGeneration();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<SearchQuery> loads = new ArrayList<>();
+    private final Function<SearchQuery, SearchResult> loader = query -> {
+        loads.add(query);
+        return new SearchResult(query.page(), List.of());
+    };
+
+    private WarmSet warmSet;
+
+    @AfterEach
+    void tearDown() {
+        if (warmSet != null) {
+            warmSet.shutdown();
+        }
+    }
+
+    @Test
+    void testRefresh_MaterializesConfiguredPages() throws Exception {
+        warmSet = warmSet(true, List.of("category=Math", "type=CLUB&sort=priceAsc&size=20"), 5);
+
+        warmSet.refresh(loader);
+
+        assertEquals(4, loads.size());
+        WarmPage second = warmSet.find(key("category=Math&page=1"));
+        assertNotNull(second);
+        assertEquals(1L, second.result().total());
+        assertArrayEquals(objectMapper.writeValueAsBytes(second.result()), second.json());
+        assertNotNull(warmSet.find(key("type=CLUB&sort=priceAsc&size=20")));
+        assertNull(warmSet.find(key("category=Math&page=2")));
+        assertNull(warmSet.find(key("type=CLUB&sort=priceAsc")));
+    }
+
+    @Test
+    void testFind_NothingServedForAnOlderGeneration() {
+        warmSet = warmSet(true, List.of("category=Math"), 5);
+        warmSet.refresh(loader);
+
+        indexGeneration.advance();
+
+        assertNull(warmSet.find(key("category=Math")));
+        warmSet.refresh(loader);
+        assertNotNull(warmSet.find(key("category=Math")));
+        assertEquals(4, loads.size());
+    }
+
+    @Test
+    void testRefresh_SkipsUnchangedGeneration() {
+        warmSet = warmSet(true, List.of("category=Math"), 5);
+
+        warmSet.refresh(loader);
+        warmSet.refresh(loader);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void testRecord_LearnsFrequentQueries() {
+        warmSet = warmSet(true, List.of(), 3);
+        CanonicalQuery hot = canonicalizer.canonicalize(SearchQueryParams.parse("category=Art&sort=priceDesc"));
+        CanonicalQuery cold = canonicalizer.canonicalize(SearchQueryParams.parse("category=Music"));
+        CanonicalQuery deep = canonicalizer.canonicalize(SearchQueryParams.parse("category=Art&page=5"));
+        for (int i = 0; i < 3; i++) {
+            warmSet.record(hot);
+            warmSet.record(deep);
+        }
+        warmSet.record(cold);
+
+        warmSet.refresh(loader);
+
+        assertEquals(List.of(hot.query()), loads);
+        assertNotNull(warmSet.find(hot.key()));
+        assertNull(warmSet.find(cold.key()));
+        assertNull(warmSet.find(deep.key()));
+    }
+
+    @Test
+    void testRecord_IgnoredWhenDisabled() {
+        warmSet = warmSet(false, List.of(), 1);
+        CanonicalQuery query = canonicalizer.canonicalize(SearchQueryParams.parse("category=Art"));
+        warmSet.record(query);
+
+        warmSet.start(loader);
+
+        assertTrue(loads.isEmpty());
+        assertNull(warmSet.find(query.key()));
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidConfiguredQuery() {
+        assertThrows(IllegalArgumentException.class, () -> warmSet(true, List.of("sort=cheapest"), 5));
+    }
+
+    private WarmSet warmSet(boolean enabled, List<String> queries, long minHits) {
+        return new WarmSet(canonicalizer, indexGeneration, objectMapper, enabled, queries, 2, 10, minHits, 100,
+                1000, 600_000);
+    }
+
+    private String key(String queryString) {
+        return canonicalizer.canonicalize(SearchQueryParams.parse(queryString)).key();
+    }
+}
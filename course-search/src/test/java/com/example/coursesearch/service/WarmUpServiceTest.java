@@ -0,0 +1,136 @@
+package com.example.coursesearch.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpServiceTest {
+
+    @Mock
+    private SearchService searchService;
+
+    @Test
+    void testWarmUp_ReplaysSearchesAndSuggestions() {
+        WarmUpService service = service(resource("""
+                # recorded sample
+                /api/search?category=Math&sort=priceAsc
+                /api/search/suggest?q=ma%20be
+
+                /api/search?q=art&page=1
+                """), 5, 1_000);
+
+        WarmUpService.WarmUpReport report = service.warmUp();
+
+        assertEquals(3, report.requests());
+        assertEquals(0, report.failures());
+        assertEquals(1, report.rounds());
+        assertTrue(report.targetReached());
+        assertSame(report, service.report());
+        SearchQuery math = SearchQuery.builder().category("Math").sort("priceAsc").page(0).size(10).build();
+        SearchQuery art = SearchQuery.builder().keyword("art").sort("nextSessionDate").page(1).size(10).build();
+        verify(searchService).searchUncached(math);
+        verify(searchService).load(math);
+        verify(searchService).searchUncached(art);
+        verify(searchService).load(art);
+        verify(searchService).suggest(null, "ma be");
+    }
+
+    @Test
+    void testWarmUp_MeasuresUncachedPathWithoutFeedingWarmSet() {
+        when(searchService.searchUncached(any(SearchQuery.class))).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return null;
+        });
+        WarmUpService service = service(resource("/api/search?category=Math\n"), 3, 0);
+
+        WarmUpService.WarmUpReport report = service.warmUp();
+
+        assertEquals(3, report.rounds());
+        assertTrue(report.p99Ms() >= 5);
+        verify(searchService, times(3)).searchUncached(any(SearchQuery.class));
+        verify(searchService, times(1)).load(any(SearchQuery.class));
+        verify(searchService, never()).search(any(SearchQuery.class));
+    }
+
+    @Test
+    void testWarmUp_RepeatsRoundsUntilTargetOrLimit() {
+        when(searchService.searchUncached(any(SearchQuery.class))).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return null;
+        });
+        WarmUpService service = service(resource("/api/search?category=Math\n"), 3, 0);
+
+        WarmUpService.WarmUpReport report = service.warmUp();
+
+        assertEquals(3, report.rounds());
+        assertFalse(report.targetReached());
+        verify(searchService, times(3)).searchUncached(any(SearchQuery.class));
+    }
+
+    @Test
+    void testWarmUp_SkipsMalformedAndFailingRequests() {
+        when(searchService.searchUncached(any(SearchQuery.class))).thenThrow(new IllegalArgumentException("minAge"));
+        WarmUpService service = service(resource("""
+                /api/search?minAge=10&maxAge=5
+                /api/search?size=1000
+                /api/courses/1
+                /api/search/suggest?q=sci
+                """), 5, 1_000);
+
+        WarmUpService.WarmUpReport report = service.warmUp();
+
+        assertEquals(4, report.requests());
+        assertEquals(3, report.failures());
+        verify(searchService).suggest(null, "sci");
+    }
+
+    @Test
+    void testWarmUp_BundledSampleParses() {
+        WarmUpService service = service(new ClassPathResource("warmup-queries.txt"), 1, 1_000);
+
+        WarmUpService.WarmUpReport report = service.warmUp();
+
+        assertTrue(report.requests() > 20);
+        assertEquals(0, report.failures());
+    }
+
+    @Test
+    void testWarmUp_Disabled() {
+        WarmUpService service = new WarmUpService(searchService, false, resource(""), 5, 50, 1_000);
+
+        assertNull(service.report());
+        assertEquals(0, service.warmUp().requests());
+        assertNotNull(service.report());
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testP99() {
+        long[] latencies = new long[200];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = i + 1;
+        }
+
+        assertEquals(198, WarmUpService.p99(latencies));
+        assertEquals(0, WarmUpService.p99(new long[0]));
+    }
+
+    private WarmUpService service(Resource queries, int maxRounds, long targetP99Ms) {
+        return new WarmUpService(searchService, true, queries, maxRounds, targetP99Ms, 60_000);
+    }
+
+    private static Resource resource(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}